@@ -0,0 +1,26 @@
+package com.anthonysottile.kenken.settings
+
+import android.util.Base64
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.serialization.BinaryGameSerializer
+import com.anthonysottile.kenken.serialization.GameSerializer
+import com.anthonysottile.kenken.serialization.JsonStringGameSerializer
+
+/**
+ * [BinaryGameSerializer] for preferences, which only hold strings.  Games
+ *  stored as JSON by earlier versions are still read.
+ */
+object Base64GameSerializer : GameSerializer<String> {
+
+    override fun serialize(game: KenKenGame): String {
+        return Base64.encodeToString(BinaryGameSerializer.serialize(game), Base64.NO_WRAP)
+    }
+
+    override fun deserialize(data: String): KenKenGame {
+        if (data.startsWith("{")) {
+            return JsonStringGameSerializer.deserialize(data)
+        }
+
+        return BinaryGameSerializer.deserialize(Base64.decode(data, Base64.NO_WRAP))
+    }
+}
@@ -0,0 +1,43 @@
+package com.anthonysottile.kenken.settings
+
+import android.content.SharedPreferences
+import com.anthonysottile.kenken.pool.PuzzleStore
+import org.json.JSONArray
+import org.json.JSONException
+import java.util.*
+
+/**
+ * Keeps pooled puzzles in the application preferences, one JSON array of
+ *  serialized puzzles per pool.
+ */
+class PreferencesPuzzleStore(private val preferences: SharedPreferences) : PuzzleStore {
+
+    override fun load(key: String): List<String> {
+        val puzzles = ArrayList<String>()
+        val stored = this.preferences.getString(PreferencesPuzzleStore.PuzzlePool + key, null)
+                ?: return puzzles
+
+        try {
+            val arr = JSONArray(stored)
+            for (i in 0 until arr.length()) {
+                puzzles.add(arr.getString(i))
+            }
+        } catch (e: JSONException) {
+            puzzles.clear()
+        }
+        return puzzles
+    }
+
+    override fun save(key: String, puzzles: List<String>) {
+        val arr = JSONArray()
+        puzzles.forEach { arr.put(it) }
+
+        val editor = this.preferences.edit()
+        editor.putString(PreferencesPuzzleStore.PuzzlePool + key, arr.toString())
+        editor.apply()
+    }
+
+    companion object {
+        private const val PuzzlePool = "PuzzlePool"
+    }
+}
@@ -33,6 +33,20 @@ object StatisticsManager {
         return hardStatsArray
     }
 
+    /**
+     * Reads the statistics of every game size.  Arrays saved before larger
+     *  game sizes were added are shorter, those sizes start out empty.
+     */
+    private fun statsFromJson(arr: JSONArray): Array<GameStatistics> {
+        return Array(UIConstants.GameSizes) { i ->
+            if (i < arr.length()) {
+                GameStatistics(arr.getJSONObject(i))
+            } else {
+                GameStatistics(i + UIConstants.MinGameSize)
+            }
+        }
+    }
+
     private fun saveGameStatistics() {
         val editor = this.preferences.edit()
         editor.putString(this.Statistics, this.statsJson().toString())
@@ -46,9 +60,7 @@ object StatisticsManager {
                 val arr = JSONArray(
                         this.preferences.getString(StatisticsManager.Statistics, "")
                 )
-                this.statistics = Array(UIConstants.GameSizes) { i ->
-                    GameStatistics(arr.getJSONObject(i))
-                }
+                this.statistics = this.statsFromJson(arr)
             } catch (e: JSONException) {
                 this.clearStatistics()
             }
@@ -61,9 +73,7 @@ object StatisticsManager {
                 val arr = JSONArray(
                         this.preferences.getString(StatisticsManager.HardStatistics, "")
                 )
-                this.hardStatistics = Array(UIConstants.GameSizes) { i ->
-                    GameStatistics(arr.getJSONObject(i))
-                }
+                this.hardStatistics = this.statsFromJson(arr)
             } catch (e: JSONException) {
                 this.clearHardStatistics()
             }
@@ -95,13 +105,9 @@ object StatisticsManager {
         try {
             val obj = JSONObject(statsString)
             val statsJson = obj.getJSONArray("stats")
-            val stats = Array(UIConstants.GameSizes) { i ->
-                GameStatistics(statsJson.getJSONObject(i))
-            }
+            val stats = this.statsFromJson(statsJson)
             val hardStatsJson = obj.getJSONArray("hardStats")
-            val hardStats = Array(UIConstants.GameSizes) { i ->
-                GameStatistics(hardStatsJson.getJSONObject(i))
-            }
+            val hardStats = this.statsFromJson(hardStatsJson)
 
             this.statistics = stats
             this.hardStatistics = hardStats
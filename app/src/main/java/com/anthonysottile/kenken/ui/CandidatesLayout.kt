@@ -46,12 +46,12 @@ class CandidatesLayout(context: Context, attrs: AttributeSet) : LinearLayout(con
     /**
      * Note: this does not trigger any events as this should only be
      * called from ui setting of a square.
+     *
+     * @param values The checked candidates, bit v - 1 set for value v.
      */
-    fun setValues(values: Set<Int>) {
-        this.candidates!!.forEach { it.setCheckedNoTrigger(false) }
-
-        for (x in values) {
-            this.candidates!![x - 1].setCheckedNoTrigger(true)
+    fun setValues(values: Int) {
+        for ((i, candidate) in this.candidates!!.withIndex()) {
+            candidate.setCheckedNoTrigger(values and (1 shl i) != 0)
         }
     }
 
@@ -59,11 +59,12 @@ class CandidatesLayout(context: Context, attrs: AttributeSet) : LinearLayout(con
         this.candidates!!.forEach { it.uiEnabled = false }
     }
 
-    fun setDisabled(disabled: Set<Int>) {
-        this.candidates!!.forEach { it.uiEnabled = true }
-
-        for (x in disabled) {
-            this.candidates!![x - 1].uiEnabled = false
+    /**
+     * @param disabled The values to disable, bit v - 1 set for value v.
+     */
+    fun setDisabled(disabled: Int) {
+        for ((i, candidate) in this.candidates!!.withIndex()) {
+            candidate.uiEnabled = disabled and (1 shl i) == 0
         }
     }
 
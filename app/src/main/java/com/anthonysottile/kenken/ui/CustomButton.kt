@@ -215,7 +215,14 @@ class CustomButton(
             this.textPaint.color = Color.rgb(0xff, 0xff, 0xff)
         }
 
-        val textWidth = this.textPaint.measureText(this.text)
+        // Two digit values of large games may be wider than their button
+        var textWidth = this.textPaint.measureText(this.text)
+        val maxWidth = end - start
+        if (textWidth > maxWidth && maxWidth > 0) {
+            this.textPaint.textSize = textSize * maxWidth / textWidth
+            textWidth = this.textPaint.measureText(this.text)
+        }
+
         val left = (this.measuredWidth - textWidth.toInt()) / 2
         val top = CustomButton.TopMargin + textSize
 
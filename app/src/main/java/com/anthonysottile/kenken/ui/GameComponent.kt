@@ -1,20 +1,27 @@
 package com.anthonysottile.kenken.ui
 
 import android.content.Context
+import android.graphics.Bitmap
 import android.graphics.Canvas
 import android.graphics.Color
 import android.graphics.Point
+import android.graphics.Rect
 import android.os.Handler
 import android.util.AttributeSet
 import android.view.MotionEvent
 import android.view.View
 import android.widget.TextView
+import com.anthonysottile.kenken.GameTimer
+import com.anthonysottile.kenken.Journal
 import com.anthonysottile.kenken.KenKenGame
 import com.anthonysottile.kenken.R
-import com.anthonysottile.kenken.UserSquare
+import com.anthonysottile.kenken.serialization.BinaryGameSerializer
+import com.anthonysottile.kenken.serialization.JsonGameSerializer
+import com.anthonysottile.kenken.serialization.MoveLog
 import com.anthonysottile.kenken.settings.SettingsProvider
 import com.anthonysottile.kenken.ui.KenKenSquare.SquareTouchState
 import org.json.JSONObject
+import java.io.IOException
 import java.util.*
 import kotlin.math.max
 import kotlin.math.min
@@ -35,6 +42,26 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
     private var squareHeightPlusBorder: Int = 0
     private var dimensions: SquareDrawingDimensions? = null
 
+    // The grid, cages and cage text, drawn once per game and size
+    private var staticLayer: Bitmap? = null
+    private var staticLayerGame: KenKenGame? = null
+    private var staticLayerDimensions: SquareDrawingDimensions? = null
+
+    // The squares changed since the last frame, invalidated together on the
+    //  next animation frame.  Only software drawing honours the area; with
+    //  hardware acceleration the whole view is recorded again, which the
+    //  static layer keeps to one bitmap and the squares.
+    private val dirty = Rect()
+    private val squareRect = Rect()
+    private var invalidatePosted = false
+    private val invalidateDirty = Runnable {
+        this.invalidatePosted = false
+        if (!this.dirty.isEmpty) {
+            this.invalidate(this.dirty.left, this.dirty.top, this.dirty.right, this.dirty.bottom)
+            this.dirty.setEmpty()
+        }
+    }
+
     private var uiSquares: Array<Array<KenKenSquare>>? = null
     private var selected: Point = Point(0, 0)
     private var hover: Point? = null
@@ -47,15 +74,42 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
     var gameState = GameState.Clear
         private set
 
-    private var pausedTime: Long = 0
-
     private var game: KenKenGame? = null
+    private var journal: Journal? = null
+
+    val canUndo: Boolean
+        get() = this.gameState == GameState.InGame && this.journal?.canUndo ?: false
+
+    val canRedo: Boolean
+        get() = this.gameState == GameState.InGame && this.journal?.canRedo ?: false
+
+    // Games are saved as they are played by appending their moves to the
+    //  sink, once per frame however many squares changed.
+    private var moveLog: MoveLog? = null
+    private var flushPosted = false
+    private val flushMoveLog = Runnable {
+        this.flushPosted = false
+        this.flushMoveLogNow()
+    }
+
+    /**
+     * Where the move logs of games are saved.  Without one, games are only
+     *  saved by [saveState].
+     */
+    var moveLogSink: MoveLog.Sink? = null
+
+    /**
+     * Whether the current game is kept up to date in [moveLogSink].
+     */
+    val isLogged: Boolean
+        get() = this.moveLog != null
+                && (this.gameState == GameState.InGame || this.gameState == GameState.Paused)
 
     private val gameTimer = Handler()
     private val updater = object : Runnable {
         override fun run() {
             this@GameComponent.updateTime()
-            this@GameComponent.gameTimer.postDelayed(this, 1000)
+            this@GameComponent.scheduleTick()
         }
     }
 
@@ -73,15 +127,19 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
 
     private val gameWonListeners = ArrayList<(Long, Int) -> Unit>()
 
+    // Reused for every tick so updating the time does not allocate
+    private val timeText = CharArray(GameTimer.formattedLength + 8)
+
     private fun updateTime() {
-        val now = Date()
-        val ticks = now.time - this.game!!.gameStartTime.time
-        val tickSeconds = ticks.toInt() / 1000
-        val seconds = tickSeconds % 60
-        val minutes = tickSeconds / 60 % 60
-        val hours = tickSeconds / 3600
+        val length = this.game!!.timer.format(this.timeText)
+        this.timerText.setText(this.timeText, 0, length)
+    }
 
-        this.timerText.text = String.format("%02d:%02d:%02d", hours, minutes, seconds)
+    /**
+     * Wakes the updater when the displayed time next changes.
+     */
+    private fun scheduleTick() {
+        this.gameTimer.postDelayed(this.updater, this.game!!.timer.millisUntilNextSecond())
     }
 
     private fun isGameWon(): Boolean {
@@ -94,29 +152,69 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
         //  if every square has been filled in.  Then it iterates through all
         //  of the cages to see if they are satisfied.
         // This is both faster and makes the game a little easier.
-        // However: this produces an inconsistency that will not be resolved
-        //  in the fact that the "Check" button will now only reference
-        //  the backing square and not one of the several possible solutions.
-        if (this.game == null) {
-            return false
+        // The generator now repairs cages until the solution is proven
+        //  unique, so the "Check" button referencing the backing square
+        //  always agrees with this check.  Running out of time or search
+        //  budget only means more squares are given.
+        // The game keeps the filled in square and satisfied cage counts up
+        //  to date as values are set, so this no longer walks the cages.
+        return this.game?.isSolved ?: false
+    }
+
+    private fun postMoveLogFlush() {
+        if (this.moveLog != null && !this.flushPosted) {
+            this.flushPosted = true
+            this.postOnAnimation(this.flushMoveLog)
         }
+    }
 
-        val order = this.game!!.latinSquare.order
-        if (this.game!!.squaresWithValues < order * order) {
-            return false
+    private fun flushMoveLogNow() {
+        val moveLog = this.moveLog ?: return
+        val sink = this.moveLogSink ?: return
+        try {
+            moveLog.flush(sink)
+        } catch (e: IOException) {
+            // Fall back to saving the whole game
+            this.moveLog = null
         }
+    }
 
-        for (cage in this.game!!.cages) {
-            if (!cage.cageIsValid(this.game!!.userSquares)) {
-                return false
-            }
+    /**
+     * Redraws the square on the next frame, along with anything else changed
+     *  before then, so a burst of changes such as an auto fill costs a single
+     *  frame.  Only when drawing in software is the redraw limited to the
+     *  changed squares.
+     */
+    private fun invalidateSquare(x: Int, y: Int) {
+        val dimensions = this.dimensions
+        if (dimensions == null) {
+            this.postInvalidate()
+            return
         }
 
-        return true
+        dimensions.getSquareRect(x, y, this.squareRect)
+        this.dirty.union(this.squareRect)
+        if (!this.invalidatePosted) {
+            this.invalidatePosted = true
+            this.postOnAnimation(this.invalidateDirty)
+        }
     }
 
-    private fun valueSetEvent(square: UserSquare) {
-        val value = square.value
+    private fun valueSetEvent(square: Int) {
+        val board = this.game!!.board
+        val value = board.getValue(square)
+
+        // Candidates shown in the row and column hide the values used there
+        val x = square / board.order
+        val y = square % board.order
+        for (k in 0 until board.order) {
+            if (board.getCandidates(board.indexOf(x, k)) != 0) {
+                this.invalidateSquare(x, k)
+            }
+            if (board.getCandidates(board.indexOf(k, y)) != 0) {
+                this.invalidateSquare(k, y)
+            }
+        }
 
         // ValueSet can be triggered with 0 (unset)
         // We only care about clearing out candidates and
@@ -132,10 +230,11 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
                 this.candidatesLayout.setDisabled()
                 this.gameState = GameState.Won
 
+                this.game!!.timer.pause()
                 this.gameTimer.removeCallbacks(this.updater)
                 this.updateTime()
 
-                val ticks = Date().time - this.game!!.gameStartTime.time
+                val ticks = this.game!!.timer.elapsed
 
                 this.triggerGameWon(ticks, order)
             }
@@ -146,9 +245,8 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
         }
     }
 
-    private fun getDisabled(pos: Point): Set<Int> {
-        val ret = this.game!!.rowValues[pos.x] + this.game!!.colValues[pos.y]
-        return ret - this.uiSquares!![pos.x][pos.y].userSquare.value
+    private fun getDisabled(pos: Point): Int {
+        return this.game!!.getDisabled(pos.x, pos.y)
     }
 
     private fun setFromSquare() {
@@ -162,7 +260,7 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
         } else {
             this.candidatesLayout.setDisabled(disabled)
         }
-        this.candidatesLayout.setValues(this.selectedSquare.userSquare.candidates)
+        this.candidatesLayout.setValues(this.selectedSquare.userSquare.candidateMask)
     }
 
     fun pauseIfNotPaused() {
@@ -173,15 +271,16 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
 
     fun togglePause() {
         if (this.gameState == GameState.Paused) {
-            this.game!!.resetGameStartTime(this.pausedTime)
+            this.game!!.timer.start()
 
             this.gameState = GameState.InGame
             this.setFromSquare()
             this.updateTime()
-            this.gameTimer.postDelayed(this.updater, 1000)
+            this.scheduleTick()
         } else {
-            val date = Date()
-            this.pausedTime = date.time - this.game!!.gameStartTime.time
+            this.game!!.timer.pause()
+            this.moveLog?.paused()
+            this.flushMoveLogNow()
 
             this.gameState = GameState.Paused
             this.candidatesLayout.setDisabled()
@@ -194,9 +293,29 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
         this.postInvalidate()
     }
 
+    /**
+     * Undoes the last change to the board, an auto fill as a whole.
+     */
+    fun undo() {
+        if (this.gameState == GameState.InGame && this.journal!!.undo()) {
+            this.setFromSquare()
+        }
+    }
+
+    fun redo() {
+        if (this.gameState == GameState.InGame && this.journal!!.redo()) {
+            // Redoing the last value can win the game
+            if (this.gameState == GameState.InGame) {
+                this.setFromSquare()
+            }
+        }
+    }
+
     fun check() {
         // Penalize the game playing time by 15 seconds
-        this.game!!.penalizeGameStartTime(15000)
+        this.game!!.timer.penalize(15000)
+        this.moveLog?.penalized(15000)
+        this.postMoveLogFlush()
         this.updateTime()
 
         val latinSquare = this.game!!.latinSquare
@@ -229,11 +348,19 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
 
         for (i in 0 until order) {
             for (j in 0 until order) {
-                userSquares[i][j].addValueSetListener(this::valueSetEvent)
-                this.uiSquares!![i][j].addRequestRedrawListener(this::postInvalidate)
+                this.uiSquares!![i][j].addRequestRedrawListener { this.invalidateSquare(i, j) }
             }
         }
 
+        // Listen to the board itself rather than to every square
+        val board = this.game!!.board
+        this.journal = Journal(board)
+        board.addValueSetListener(this::valueSetEvent)
+        board.addChangedListener { square ->
+            this.invalidateSquare(square / order, square % order)
+            this.postMoveLogFlush()
+        }
+
         // Pass cage texts into the squares
         for (cage in this.game!!.cages) {
             val location = cage.signLocation
@@ -246,7 +373,7 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
         this.selectedSquare.touchState = SquareTouchState.Selected
 
         this.updateTime()
-        this.gameTimer.postDelayed(this.updater, 1000)
+        this.scheduleTick()
 
         this.gameState = GameState.InGame
 
@@ -255,40 +382,69 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
     }
 
     /**
-     * Saves out current state of the game.  Returns null if none to save.
+     * Saves out current state of the game, pausing it and bringing its move
+     *  log up to date.  Returns null if none to save.
      *
-     * @return Game JSON or null if there is no game.
+     * @return The saved game or null if there is no game.
      */
-    fun saveState(): JSONObject? {
+    fun saveState(): ByteArray? {
         if (this.gameState == GameState.Clear || this.gameState == GameState.Won) {
             return null
         }
 
-        // If we are paused, we want to set the correct time before saving it out.
-        if (this.gameState == GameState.Paused) {
-            this.game!!.resetGameStartTime(this.pausedTime)
-        }
+        this.pauseIfNotPaused()
+        this.flushMoveLogNow()
 
-        val gameAsJson = this.game!!.toJson()
+        return BinaryGameSerializer.serialize(this.game!!)
+    }
 
-        this.pauseIfNotPaused()
+    /**
+     * Loads a game restored from its move log, which keeps logging it.
+     */
+    fun loadMoveLog(moveLog: MoveLog) {
+        this.clear()
+        this.game = moveLog.game
+        this.moveLog = moveLog
+        this.initializeGame(moveLog.game.latinSquare.order)
+        this.togglePause()
+    }
 
-        return gameAsJson
+    fun loadState(savedGame: ByteArray) {
+        this.loadState(BinaryGameSerializer.deserialize(savedGame))
     }
 
-    fun loadState(gameAsJson: JSONObject?) {
+    /**
+     * Loads a game saved as JSON by earlier versions.
+     */
+    fun loadState(gameAsJson: JSONObject) {
+        this.loadState(JsonGameSerializer.deserialize(gameAsJson))
+    }
+
+    private fun loadState(game: KenKenGame) {
         this.clear()
-        if (gameAsJson != null) {
-            this.game = KenKenGame(gameAsJson)
-            this.initializeGame(this.game!!.latinSquare.order)
-            this.togglePause()
-        }
+        this.game = game
+        this.startMoveLog()
+        this.initializeGame(game.latinSquare.order)
+        this.togglePause()
     }
 
-    fun newGame(gameSize: Int) {
+    fun newGame(game: KenKenGame) {
         this.clear()
-        this.game = KenKenGame(gameSize)
-        this.initializeGame(gameSize)
+        this.game = game
+        this.startMoveLog()
+        this.initializeGame(game.latinSquare.order)
+        this.flushMoveLogNow()
+    }
+
+    /**
+     * Starts a move log for the game if there is a sink to save it to.  Done
+     *  before the game's listeners are added, so moves are logged before the
+     *  log is flushed.
+     */
+    private fun startMoveLog() {
+        if (this.moveLogSink != null) {
+            this.moveLog = MoveLog(this.game!!)
+        }
     }
 
     fun clear() {
@@ -300,7 +456,15 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
             this.timerText.text = ""
 
             this.game = null
+            this.journal = null
+            this.moveLog = null
+            this.removeCallbacks(this.flushMoveLog)
+            this.flushPosted = false
             this.uiSquares = null
+            this.removeCallbacks(this.invalidateDirty)
+            this.invalidatePosted = false
+            this.dirty.setEmpty()
+            this.releaseStaticLayer()
             this.hover = null
             this.selected = Point(0, 0)
         }
@@ -348,33 +512,8 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
     }
 
     private fun handleDoubleTap() {
-        // Set all 1-square cages
-        for (cage in this.game!!.cages) {
-            val cageSquares = cage.squares
-            if (cageSquares.size == 1) {
-                val pt = cageSquares[0]
-                val square = this.uiSquares!![pt.x][pt.y].userSquare
-                if (square.value == 0) {
-                    square.value = cage.signNumber.number
-                }
-            }
-        }
-
-        // Set all values that can only be satisfied by one value
-        do {
-            var actionTaken = false
-            for ((i, row) in this.uiSquares!!.withIndex()) {
-                for ((j, uiSquare) in row.withIndex()) {
-                    val square = uiSquare.userSquare
-                    val disabled = this.getDisabled(Point(i, j))
-                    val order = this.game!!.latinSquare.order
-                    if (square.value == 0 && disabled.size == order - 1) {
-                        square.value = order * (order + 1) / 2 - disabled.sum()
-                        actionTaken = true
-                    }
-                }
-            }
-        } while (actionTaken)
+        // Undone as one change however many squares it fills
+        this.journal!!.transaction { this.game!!.autoFill() }
 
         // #5: don't update the pickers if the game is won
         if (this.gameState != GameState.Won) {
@@ -399,6 +538,11 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
 
             val target = this.getTargetFromPosition(x.toInt(), y.toInt())
 
+            // Moving within the hovered square changes nothing
+            if (event.action == MotionEvent.ACTION_MOVE && target == this.hover) {
+                return true
+            }
+
             // Move, Down are handled as "hovering"
             // Up is handled as the click
             when (event.action) {
@@ -498,14 +642,88 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
         this.squareWidthPlusBorder = squareWidth + UIConstants.BorderWidth
         this.squareHeightPlusBorder = squareHeight + UIConstants.BorderWidth
 
-        if (this.dimensions == null || this.dimensions!!.order != order) {
+        // Nothing to draw until the view is laid out, and no bitmap fits it
+        if (squareWidth <= 0 || squareHeight <= 0) {
+            return
+        }
+
+        val dimensions = this.dimensions
+        if (dimensions == null
+                || dimensions.order != order
+                || dimensions.squareWidth != squareWidth
+                || dimensions.squareHeight != squareHeight) {
             this.dimensions = SquareDrawingDimensions(order, squareWidth, squareHeight)
         }
 
+        if (this.gameState == GameState.InGame || this.gameState == GameState.Won) {
+            canvas.drawBitmap(this.getStaticLayer(order, squareWidth, squareHeight), 0f, 0f, null)
+
+            // draw the squares themselves, skipping the ones outside the
+            //  invalidated area, which only drawing in software clips to
+            for ((i, row) in this.uiSquares!!.withIndex()) {
+                for ((j, square) in row.withIndex()) {
+                    this.dimensions!!.getSquareRect(i, j, this.squareRect)
+                    val outside = canvas.quickReject(
+                            this.squareRect.left.toFloat(),
+                            this.squareRect.top.toFloat(),
+                            this.squareRect.right.toFloat(),
+                            this.squareRect.bottom.toFloat(),
+                            Canvas.EdgeType.BW
+                    )
+                    if (!outside) {
+                        square.drawSquare(canvas, this.dimensions!!, i, j)
+                    }
+                }
+            }
+        } else {
+            this.drawGrid(canvas, order, squareWidth, squareHeight)
+        }
+    }
+
+    /**
+     * Returns the static layer of the current game, drawing it if the game
+     *  or the size of the view changed since it was last drawn.
+     */
+    private fun getStaticLayer(order: Int, squareWidth: Int, squareHeight: Int): Bitmap {
+        val cached = this.staticLayer
+        if (cached != null
+                && this.staticLayerGame === this.game
+                && this.staticLayerDimensions === this.dimensions
+                && cached.width == this.measuredWidth
+                && cached.height == this.measuredHeight) {
+            return cached
+        }
+
+        this.releaseStaticLayer()
+
+        val layer = Bitmap.createBitmap(this.measuredWidth, this.measuredHeight, Bitmap.Config.ARGB_8888)
+        val canvas = Canvas(layer)
+
+        this.drawGrid(canvas, order, squareWidth, squareHeight)
+        this.drawCages(canvas, squareWidth, squareHeight)
+        for ((i, row) in this.uiSquares!!.withIndex()) {
+            for ((j, square) in row.withIndex()) {
+                square.drawStaticLayer(canvas, this.dimensions!!, i, j)
+            }
+        }
+
+        this.staticLayer = layer
+        this.staticLayerGame = this.game
+        this.staticLayerDimensions = this.dimensions
+        return layer
+    }
+
+    private fun releaseStaticLayer() {
+        this.staticLayer?.recycle()
+        this.staticLayer = null
+        this.staticLayerGame = null
+        this.staticLayerDimensions = null
+    }
+
+    private fun drawGrid(canvas: Canvas, order: Int, squareWidth: Int, squareHeight: Int) {
         val drawnBoardWidth = order * squareWidth + (order + 1) * UIConstants.BorderWidth
         val drawnBoardHeight = order * squareHeight + (order + 1) * UIConstants.BorderWidth
 
-        // Draw grids and cages first
         for (i in 0 until order + 1) {
             // horizontal grid line
             canvas.drawRect(
@@ -521,40 +739,31 @@ class GameComponent(context: Context, attrs: AttributeSet) : View(context, attrs
                     UIConstants.getGridColor()
             )
         }
+    }
 
-        if (this.gameState == GameState.InGame || this.gameState == GameState.Won) {
-
-            // Draw Cages
-            for (cage in this.game!!.cages) {
-                for (line in cage.renderLines) {
-
-                    val linePosition = line.position
+    private fun drawCages(canvas: Canvas, squareWidth: Int, squareHeight: Int) {
+        for (cage in this.game!!.cages) {
+            for (line in cage.renderLines) {
 
-                    val startX = linePosition.x * (squareWidth + UIConstants.BorderWidth)
-                    val startY = linePosition.y * (squareHeight + UIConstants.BorderWidth)
+                val linePosition = line.position
 
-                    var endX = startX
-                    var endY = startY
+                val startX = linePosition.x * (squareWidth + UIConstants.BorderWidth)
+                val startY = linePosition.y * (squareHeight + UIConstants.BorderWidth)
 
-                    if (line.horizontal) {
-                        endX += line.length * (squareWidth + UIConstants.BorderWidth)
-                    } else {
-                        endY += line.length * (squareHeight + UIConstants.BorderWidth)
-                    }
+                var endX = startX
+                var endY = startY
 
-                    canvas.drawRect(
-                            startX.toFloat(), startY.toFloat(),
-                            (endX + UIConstants.BorderWidth).toFloat(), (endY + UIConstants.BorderWidth).toFloat(),
-                            UIConstants.getCageColor()
-                    )
+                if (line.horizontal) {
+                    endX += line.length * (squareWidth + UIConstants.BorderWidth)
+                } else {
+                    endY += line.length * (squareHeight + UIConstants.BorderWidth)
                 }
-            }
 
-            // draw the squares themselves
-            for ((i, row) in this.uiSquares!!.withIndex()) {
-                for ((j, square) in row.withIndex()) {
-                    square.drawSquare(canvas, this.dimensions!!, i, j)
-                }
+                canvas.drawRect(
+                        startX.toFloat(), startY.toFloat(),
+                        (endX + UIConstants.BorderWidth).toFloat(), (endY + UIConstants.BorderWidth).toFloat(),
+                        UIConstants.getCageColor()
+                )
             }
         }
     }
@@ -2,23 +2,72 @@ package com.anthonysottile.kenken.ui
 
 import android.app.Activity
 import android.content.Intent
+import android.content.SharedPreferences
 import android.os.Bundle
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
 import android.view.Menu
 import android.view.MenuItem
 import android.widget.TextView
 import android.widget.Toast
+import com.anthonysottile.kenken.GameTimer
 import com.anthonysottile.kenken.R
+import com.anthonysottile.kenken.pool.PuzzlePool
+import com.anthonysottile.kenken.serialization.BackgroundSink
+import com.anthonysottile.kenken.serialization.MoveLog
+import com.anthonysottile.kenken.settings.Base64GameSerializer
+import com.anthonysottile.kenken.settings.PreferencesPuzzleStore
 import com.anthonysottile.kenken.settings.SettingsProvider
 import com.anthonysottile.kenken.settings.StatisticsManager
 import com.anthonysottile.kenken.ui.GameComponent.GameState
 import org.json.JSONException
 import org.json.JSONObject
+import java.io.File
 import java.io.FileInputStream
 import java.io.FileOutputStream
+import java.io.IOException
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
 
 
 class KenKenAndroidActivity : Activity() {
     private lateinit var gameComponent: GameComponent
+    private lateinit var puzzlePool: PuzzlePool
+
+    private val moveLogFile: File
+        get() = File(this.filesDir, KenKenAndroidActivity.moveLogFileName)
+
+    // Whether this process was started for this activity, as after the system
+    //  killed the process the saved state came from
+    private var newProcess = false
+
+    /**
+     * Keeps the move log of the current game in a file, appending a few bytes
+     *  per move and replacing it through a temporary file so it is never
+     *  left half written.  Used from the move log thread.
+     */
+    private class MoveLogFileSink(private val file: File) : MoveLog.Sink {
+        override fun append(bytes: ByteArray, offset: Int, length: Int) {
+            FileOutputStream(this.file, true).use {
+                it.write(bytes, offset, length)
+            }
+        }
+
+        override fun replace(bytes: ByteArray, offset: Int, length: Int) {
+            val temporary = File(this.file.path + ".tmp")
+            FileOutputStream(temporary).use {
+                it.write(bytes, offset, length)
+            }
+            if (!temporary.renameTo(this.file)) {
+                throw IOException("Could not replace the move log")
+            }
+        }
+    }
+
+    private fun prefillPuzzlePool() {
+        this.puzzlePool.prefill(SettingsProvider.gameSize)
+    }
 
     private fun gameWon(ticks: Long, size: Int) {
         val highScore = StatisticsManager.gameEnded(
@@ -33,13 +82,28 @@ class KenKenAndroidActivity : Activity() {
     public override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
 
+        this.newProcess = !KenKenAndroidActivity.created
+        KenKenAndroidActivity.created = true
+
+        // Time games with the clock which keeps counting while the device sleeps
+        GameTimer.clock = SystemClock::elapsedRealtime
+
         // Give a reference to settings to our static settings manager
         // Also attach to the settings's event handler
         val preferences = this.getSharedPreferences(KenKenAndroidActivity.preferences, 0)
         SettingsProvider.initialize(preferences)
         StatisticsManager.initialize(preferences)
-        SettingsProvider.addGameSizeChangedListener { this@KenKenAndroidActivity.gameComponent.clear() }
-        SettingsProvider.addHardModeChangedListener { this@KenKenAndroidActivity.gameComponent.clear() }
+        SettingsProvider.addGameSizeChangedListener {
+            this@KenKenAndroidActivity.gameComponent.clear()
+            this@KenKenAndroidActivity.prefillPuzzlePool()
+        }
+        SettingsProvider.addHardModeChangedListener {
+            this@KenKenAndroidActivity.gameComponent.clear()
+        }
+
+        // Start generating puzzles for the current settings in the background
+        this.puzzlePool = KenKenAndroidActivity.getPuzzlePool(preferences)
+        this.prefillPuzzlePool()
 
         // Give a reference to resources for Bitmap cache
         BitmapCache.initialize(this.resources)
@@ -58,6 +122,11 @@ class KenKenAndroidActivity : Activity() {
                 timerText
         )
 
+        // The log is written on its own thread, so moves never wait on the disk
+        this.gameComponent.moveLogSink = BackgroundSink(
+                KenKenAndroidActivity.moveLogExecutor,
+                MoveLogFileSink(this.moveLogFile)
+        )
         this.gameComponent.addGameWonListener(this::gameWon)
     }
 
@@ -73,8 +142,17 @@ class KenKenAndroidActivity : Activity() {
 
         // Restore the saved state if applicable
         if (savedInstanceState != null) {
-            if (savedInstanceState.containsKey(KenKenAndroidActivity.saveGameBundleProperty)) {
-                val gameJsonString = savedInstanceState.getString(KenKenAndroidActivity.saveGameBundleProperty)
+            val savedGame = savedInstanceState.getByteArray(KenKenAndroidActivity.saveGameBundleProperty)
+            if (this.newProcess && savedInstanceState.getBoolean(KenKenAndroidActivity.saveGameLoggedBundleProperty)) {
+                this.restoreMoveLog(savedGame)
+            } else if (savedGame != null) {
+                try {
+                    this.gameComponent.loadState(savedGame)
+                } catch (e: IllegalArgumentException) {
+                }
+            } else if (savedInstanceState.containsKey(KenKenAndroidActivity.saveGameBundleJsonProperty)) {
+                // Saved by a version which kept the game as JSON
+                val gameJsonString = savedInstanceState.getString(KenKenAndroidActivity.saveGameBundleJsonProperty)
 
                 if (gameJsonString.isNotEmpty()) {
                     try {
@@ -87,22 +165,66 @@ class KenKenAndroidActivity : Activity() {
         }
     }
 
+    /**
+     * Restores the game from its move log once the process was killed, since
+     *  the log is what was last written to disk.  Reading and replaying it is
+     *  done on the log's thread, after any writes still queued, and the game
+     *  saved in the bundle is loaded instead if the log cannot be read.
+     */
+    private fun restoreMoveLog(savedGame: ByteArray?) {
+        val file = this.moveLogFile
+        KenKenAndroidActivity.moveLogExecutor.execute {
+            val moveLog = try {
+                MoveLog.restore(file.readBytes())
+            } catch (e: IOException) {
+                null
+            } catch (e: IllegalArgumentException) {
+                null
+            }
+
+            this.runOnUiThread {
+                // Unless a new game was started in the meantime
+                if (!this.isDestroyed && this.gameComponent.gameState == GameState.Clear) {
+                    if (moveLog != null) {
+                        this.gameComponent.loadMoveLog(moveLog)
+                    } else if (savedGame != null) {
+                        try {
+                            this.gameComponent.loadState(savedGame)
+                        } catch (e: IllegalArgumentException) {
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     public override fun onSaveInstanceState(savedInstanceState: Bundle) {
         super.onSaveInstanceState(savedInstanceState)
 
+        // The bundle restores the game while the process lives, the move log
+        //  of a logged game once it was killed
         val game = this.gameComponent.saveState()
         if (game != null) {
-            savedInstanceState.putString(
-                    KenKenAndroidActivity.saveGameBundleProperty,
-                    game.toString()
-            )
+            savedInstanceState.putByteArray(KenKenAndroidActivity.saveGameBundleProperty, game)
+            if (this.gameComponent.isLogged) {
+                savedInstanceState.putBoolean(KenKenAndroidActivity.saveGameLoggedBundleProperty, true)
+            }
         }
     }
 
     private fun newGame() {
         val gameSize = SettingsProvider.gameSize
-        StatisticsManager.gameStarted(gameSize, SettingsProvider.hardMode)
-        this.gameComponent.newGame(gameSize)
+        val hardMode = SettingsProvider.hardMode
+        StatisticsManager.gameStarted(gameSize, hardMode)
+        this.gameComponent.clear()
+
+        // Handed over later if the pool is empty and the puzzle is generated,
+        //  unless the size was changed in the meantime
+        this.puzzlePool.take(gameSize) { game ->
+            if (!this.isDestroyed && SettingsProvider.gameSize == gameSize) {
+                this.gameComponent.newGame(game)
+            }
+        }
     }
 
     private fun pauseGame() {
@@ -136,6 +258,8 @@ class KenKenAndroidActivity : Activity() {
     override fun onPrepareOptionsMenu(menu: Menu): Boolean {
         val gameState = this.gameComponent.gameState
         menu.findItem(R.id.check).isEnabled = gameState === GameState.InGame
+        menu.findItem(R.id.undo).isEnabled = this.gameComponent.canUndo
+        menu.findItem(R.id.redo).isEnabled = this.gameComponent.canRedo
         menu.findItem(R.id.pause).isEnabled = gameState === GameState.InGame || gameState === GameState.Paused
         if (gameState !== GameState.Paused) {
             menu.findItem(R.id.pause).setTitle(R.string.pause)
@@ -159,6 +283,14 @@ class KenKenAndroidActivity : Activity() {
                 this.checkGame()
                 return true
             }
+            R.id.undo -> {
+                this.gameComponent.undo()
+                return true
+            }
+            R.id.redo -> {
+                this.gameComponent.redo()
+                return true
+            }
             R.id.preferences -> {
                 this.showPreferences()
                 return true
@@ -225,6 +357,43 @@ class KenKenAndroidActivity : Activity() {
         private const val requestExportStatistics = 1
         private const val requestImportStatistics = 2
         private const val preferences = "com.anthonysottile.kenken"
-        private const val saveGameBundleProperty = "SavedGame"
+        private const val saveGameBundleProperty = "SavedGameV2"
+        private const val saveGameBundleJsonProperty = "SavedGame"
+        private const val saveGameLoggedBundleProperty = "SavedGameLogged"
+        private const val moveLogFileName = "game.log"
+
+        // Set by the first activity the process creates
+        private var created = false
+
+        // Writes and reads the move log, one file operation at a time
+        private val moveLogExecutor: Executor by lazy {
+            Executors.newSingleThreadExecutor { runnable ->
+                val thread = Thread(runnable, "MoveLog")
+                thread.isDaemon = true
+                thread
+            }
+        }
+
+        // The pool outlives the activity so puzzles keep generating across recreation
+        private var puzzlePool: PuzzlePool? = null
+
+        private fun getPuzzlePool(preferences: SharedPreferences): PuzzlePool {
+            if (this.puzzlePool == null) {
+                val executor = Executors.newSingleThreadExecutor { runnable ->
+                    val thread = Thread(runnable, "PuzzlePool")
+                    thread.priority = Thread.MIN_PRIORITY
+                    thread.isDaemon = true
+                    thread
+                }
+                val mainThread = Handler(Looper.getMainLooper())
+                this.puzzlePool = PuzzlePool(
+                        executor,
+                        Executor { mainThread.post(it) },
+                        PreferencesPuzzleStore(preferences),
+                        Base64GameSerializer
+                )
+            }
+            return this.puzzlePool!!
+        }
     }
 }
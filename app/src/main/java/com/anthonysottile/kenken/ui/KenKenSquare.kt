@@ -16,24 +16,54 @@ class KenKenSquare(val userSquare: UserSquare) {
 
     var markedIncorrect = false
         set(markedIncorrect) {
-            field = markedIncorrect
-            this.triggerRequestRedrawEvent()
+            if (field != markedIncorrect) {
+                field = markedIncorrect
+                this.triggerRequestRedrawEvent()
+            }
         }
 
     var touchState = SquareTouchState.None
         set(touchState) {
-            field = touchState
-            this.triggerRequestRedrawEvent()
+            if (field != touchState) {
+                field = touchState
+                this.triggerRequestRedrawEvent()
+            }
         }
 
     var cageText = ""
         set(cageText) {
-            field = cageText
-            this.triggerRequestRedrawEvent()
+            if (field != cageText) {
+                field = cageText
+                this.triggerRequestRedrawEvent()
+            }
         }
 
     private val requestRedrawListeners = ArrayList<() -> Unit>()
 
+    /**
+     * Draws the parts of the square which do not change during a game, the
+     *  default background and the cage text, for the cached static layer.
+     */
+    fun drawStaticLayer(canvas: Canvas, dimensions: SquareDrawingDimensions, x: Int, y: Int) {
+        dimensions.paintBackgroundColor(canvas, defaultColor, x, y)
+        this.drawCageText(canvas, dimensions, x, y)
+    }
+
+    private fun drawCageText(canvas: Canvas, dimensions: SquareDrawingDimensions, x: Int, y: Int) {
+        if (this.cageText.isNotEmpty()) {
+            dimensions.paintCageText(
+                    canvas,
+                    this.cageText,
+                    x,
+                    y
+            )
+        }
+    }
+
+    /**
+     * Draws the parts of the square which change during a game over the
+     *  static layer.
+     */
     fun drawSquare(canvas: Canvas, dimensions: SquareDrawingDimensions, x: Int, y: Int) {
         // Fill background
         var backgroundColor: Paint = when (this.touchState) {
@@ -45,21 +75,16 @@ class KenKenSquare(val userSquare: UserSquare) {
             backgroundColor = incorrectColor
         }
 
-        dimensions.paintBackgroundColor(
-                canvas,
-                backgroundColor,
-                x,
-                y
-        )
-
-        // Draw cage text
-        if (this.cageText.isNotEmpty()) {
-            dimensions.paintCageText(
+        // The static layer already has the default background and cage
+        //  text, any other background covers the text so it is drawn again.
+        if (backgroundColor !== defaultColor) {
+            dimensions.paintBackgroundColor(
                     canvas,
-                    this.cageText,
+                    backgroundColor,
                     x,
                     y
             )
+            this.drawCageText(canvas, dimensions, x, y)
         }
 
         // Draw value text or candidates text
@@ -68,19 +93,19 @@ class KenKenSquare(val userSquare: UserSquare) {
             // Display value
             dimensions.paintValueText(
                     canvas,
-                    Integer.toString(squareValue),
+                    squareValue,
                     x,
                     y
             )
         } else {
             // Display candidates
-            val candidatesText = this.userSquare.getCandidatesString()
+            val candidates = this.userSquare.shownCandidates
 
-            // Only paint if there is a string there
-            if (candidatesText.isNotEmpty()) {
+            // Only paint if there are candidates to show
+            if (candidates != 0) {
                 dimensions.paintCandidatesText(
                         canvas,
-                        candidatesText,
+                        candidates,
                         x,
                         y
                 )
@@ -88,10 +113,6 @@ class KenKenSquare(val userSquare: UserSquare) {
         }
     }
 
-    init {
-        this.userSquare.addChangedEventHandler { _ -> this@KenKenSquare.triggerRequestRedrawEvent() }
-    }
-
     fun addRequestRedrawListener(listener: () -> Unit) {
         this.requestRedrawListeners.add(listener)
     }
@@ -3,22 +3,35 @@ package com.anthonysottile.kenken.ui
 import android.graphics.Canvas
 import android.graphics.Color
 import android.graphics.Paint
+import android.graphics.Rect
+import android.util.SparseArray
+import com.anthonysottile.kenken.CandidateStrings
 import kotlin.math.ceil
+import kotlin.math.sqrt
 
 class SquareDrawingDimensions(
         val order: Int,
-        private val squareWidth: Int,
-        private val squareHeight: Int
+        val squareWidth: Int,
+        val squareHeight: Int
 ) {
 
     private val cageTextFontSize: Int = squareHeight / 5
     private val valueTextFontSize: Int
     private var candidatesTextFontSize: Int = 0
+    private val candidateLineCount = SquareDrawingDimensions.getCandidateLineCount(this.order)
 
     private val cageTextPaint = Paint()
     private val valueTextPaint = Paint()
     private val candidatesTextPaint = Paint()
 
+    // Each value's text and its offset from the left of a square, by value
+    private val valueStrings = Array(this.order + 1) { Integer.toString(it) }
+    private val valueOffsets = IntArray(this.order + 1)
+
+    // For each set of candidates drawn so far, the start and end of every
+    //  line of its text
+    private val candidateLines = SparseArray<IntArray>()
+
 
     private fun getLeft(x: Int): Int {
         return UIConstants.BorderWidth * (x + 1) + x * this.squareWidth
@@ -28,6 +41,15 @@ class SquareDrawingDimensions(
         return UIConstants.BorderWidth * (y + 1) + y * this.squareHeight
     }
 
+    /**
+     * Sets the rectangle to the area the square draws in.
+     */
+    fun getSquareRect(x: Int, y: Int, rect: Rect) {
+        val left = this.getLeft(x)
+        val top = this.getTop(y)
+        rect.set(left, top, left + this.squareWidth, top + this.squareHeight)
+    }
+
     fun paintCageText(canvas: Canvas, cageText: String, x: Int, y: Int) {
         val left = this.getLeft(x) + SquareDrawingDimensions.cageTextLeftMargin
         val top = this.getTop(y) + this.cageTextFontSize
@@ -35,53 +57,79 @@ class SquareDrawingDimensions(
         canvas.drawText(cageText, left.toFloat(), top.toFloat(), this.cageTextPaint)
     }
 
-    fun paintValueText(canvas: Canvas, valueText: String, x: Int, y: Int) {
-        val textWidth = this.valueTextPaint.measureText(valueText).toInt()
-
-        val left = this.getLeft(x) + (this.squareWidth - textWidth) / 2
+    fun paintValueText(canvas: Canvas, value: Int, x: Int, y: Int) {
+        val left = this.getLeft(x) + this.valueOffsets[value]
         val top = this.getTop(y) + this.cageTextFontSize + this.valueTextFontSize
 
-        canvas.drawText(valueText, left.toFloat(), top.toFloat(), this.valueTextPaint)
+        canvas.drawText(this.valueStrings[value], left.toFloat(), top.toFloat(), this.valueTextPaint)
     }
 
-    fun paintCandidatesText(canvas: Canvas, candidatesText: String, x: Int, y: Int) {
-        // Figure out the length of string to print
-        val textLength = candidatesText.length
+    /**
+     * Draws the candidates wrapped onto as many lines as they need.
+     *
+     * @param candidates The candidates, bit v - 1 set for value v.
+     */
+    fun paintCandidatesText(canvas: Canvas, candidates: Int, x: Int, y: Int) {
+        val candidatesText = CandidateStrings.get(candidates)
+        var lines = this.candidateLines.get(candidates)
+        if (lines == null) {
+            lines = this.breakLines(candidatesText)
+            this.candidateLines.put(candidates, lines)
+        }
 
         // Align the candidates text at the bottom of the square
         val left = this.getLeft(x) + 3
         val top = (this.getTop(y) + this.squareHeight - 5
-                - this.order / 6 * this.candidatesTextFontSize)
+                - (this.candidateLineCount - 1) * this.candidatesTextFontSize)
+
+        for (line in 0 until lines.size / 2) {
+            canvas.drawText(
+                    candidatesText,
+                    lines[2 * line],
+                    lines[2 * line + 1],
+                    left.toFloat(),
+                    (top + line * this.candidatesTextFontSize).toFloat(),
+                    this.candidatesTextPaint
+            )
+        }
+    }
+
+    /**
+     * Wraps the text to the width of a square, returning the start and end
+     *  of every line.
+     */
+    private fun breakLines(candidatesText: String): IntArray {
+        val textLength = candidatesText.length
+        val lines = ArrayList<Int>()
 
         // Note: this is wrapping character by character, not by word
         // first represents the first character index in the string segment
-        // line is the line that the text is being written to
         var first = 0
-        var line = 0
         while (first < textLength) {
             var last = candidatesText.length
             while (this.candidatesTextPaint.measureText(candidatesText, first, last) > this.squareWidth - 5) {
                 last -= 1
             }
 
-            // Draw the string from first to last
-            canvas.drawText(
-                    candidatesText,
-                    first,
-                    last,
-                    left.toFloat(),
-                    (top + line * this.candidatesTextFontSize).toFloat(),
-                    this.candidatesTextPaint
-            )
+            // Keep numbers of two digits whole when the line has a space
+            if (last < textLength && candidatesText[last] != ' ') {
+                val space = candidatesText.lastIndexOf(' ', last)
+                if (space > first) {
+                    last = space
+                }
+            }
+
+            lines.add(first)
+            lines.add(last)
 
             // assign last into first to check for the next substring
             first = last
             if (first < textLength && candidatesText[first] == ' ') {
                 first += 1
             }
-
-            line += 1
         }
+
+        return lines.toIntArray()
     }
 
     fun paintBackgroundColor(canvas: Canvas, paint: Paint, x: Int, y: Int) {
@@ -102,37 +150,68 @@ class SquareDrawingDimensions(
     init {
         this.cageTextPaint.textSize = this.cageTextFontSize.toFloat()
 
-        this.valueTextFontSize = (
+        var valueTextFontSize = (
                 this.squareHeight -
                         2 * this.cageTextFontSize -
-                        (UIConstants.MaxGameSize - order)
+                        SquareDrawingDimensions.getSmallOrderPadding(order)
                 )
-        this.valueTextPaint.textSize = this.valueTextFontSize.toFloat()
+        this.valueTextPaint.textSize = valueTextFontSize.toFloat()
+
+        // Two digit values may be too wide for the squares of large orders
+        while (valueTextFontSize > 1 &&
+                this.valueTextPaint.measureText(this.valueStrings[order]) > this.squareWidth - 5) {
+            valueTextFontSize -= 1
+            this.valueTextPaint.textSize = valueTextFontSize.toFloat()
+        }
+        this.valueTextFontSize = valueTextFontSize
 
         this.candidatesTextFontSize = this.squareHeight - this.cageTextFontSize
         this.candidatesTextPaint.textSize = this.candidatesTextFontSize.toFloat()
         this.candidatesTextPaint.color = Color.rgb(0x77, 0x77, 0x77)
         val testMeasureString = SquareDrawingDimensions.getTestCandidateString(order)
 
-        val maxWidth = this.squareWidth - 5 - (UIConstants.MaxGameSize - order) * 2
+        val maxWidth = this.squareWidth - 5 - SquareDrawingDimensions.getSmallOrderPadding(order) * 2
+        val maxHeight = this.squareHeight - this.cageTextFontSize - 5
 
-        while (this.candidatesTextPaint.measureText(testMeasureString) > maxWidth) {
+        while (this.candidatesTextPaint.measureText(testMeasureString) > maxWidth ||
+                this.candidateLineCount * this.candidatesTextFontSize > maxHeight) {
             this.candidatesTextFontSize -= 1
             this.candidatesTextPaint.textSize = this.candidatesTextFontSize.toFloat()
         }
+
+        for (value in 1..order) {
+            val textWidth = this.valueTextPaint.measureText(this.valueStrings[value]).toInt()
+            this.valueOffsets[value] = (this.squareWidth - textWidth) / 2
+        }
     }
 
     companion object {
         private const val cageTextLeftMargin = 5
 
-        private fun getTestCandidateString(order: Int): String {
-            // If the order is >= 6 we have two lines of numbers
-            val numbers = if (order >= 6) {
-                ceil(1.0 * order / 2).toInt()
-            } else {
-                order
+        // Text of orders below this gets extra room around it
+        private const val paddedOrders = 9
+
+        private fun getSmallOrderPadding(order: Int): Int {
+            return Math.max(0, SquareDrawingDimensions.paddedOrders - order)
+        }
+
+        /**
+         * Returns the lines the candidates of a square are spread over: one
+         *  below 6, two up to 9 and roughly a square of them beyond.
+         */
+        private fun getCandidateLineCount(order: Int): Int {
+            return when {
+                order < 6 -> 1
+                order <= 9 -> 2
+                else -> ceil(sqrt(order.toDouble())).toInt()
             }
-            return IntArray(numbers).joinToString(" ")
+        }
+
+        private fun getTestCandidateString(order: Int): String {
+            val lines = SquareDrawingDimensions.getCandidateLineCount(order)
+            val numbers = ceil(1.0 * order / lines).toInt()
+            val digits = if (order >= 10) "00" else "0"
+            return Array(numbers) { digits }.joinToString(" ")
         }
     }
 }
@@ -6,7 +6,7 @@ import android.graphics.Paint
 object UIConstants {
 
     const val MinGameSize = 4
-    const val MaxGameSize = 9
+    const val MaxGameSize = 25
     const val GameSizes = UIConstants.MaxGameSize - UIConstants.MinGameSize + 1
 
     const val BorderWidth = 2
@@ -41,14 +41,12 @@ class ValuesLayout(context: Context, attrs: AttributeSet) : LinearLayout(context
         }
     }
 
-    fun setDisabled(disabled: Set<Int>) {
-        // First enable all the buttons
-        for (valueButton in this.valueButtons!!) {
-            valueButton.uiEnabled = true
-        }
-
-        for (x in disabled) {
-            this.valueButtons!![x - 1].uiEnabled = false
+    /**
+     * @param disabled The values to disable, bit v - 1 set for value v.
+     */
+    fun setDisabled(disabled: Int) {
+        for ((i, valueButton) in this.valueButtons!!.withIndex()) {
+            valueButton.uiEnabled = disabled and (1 shl i) == 0
         }
     }
 
@@ -0,0 +1,52 @@
+package com.anthonysottile.kenken.benchmarks;
+
+import com.anthonysottile.kenken.KenKenGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the double tap fill.  Each invocation starts from the same half
+ * filled board so that the fill has a cascade to work through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutoFillBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "12", "16"})
+    public int order;
+
+    private KenKenGame game;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.game = new KenKenGame(this.order);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        Boards.partiallySolve(this.game);
+    }
+
+    @Benchmark
+    public int autoFill() {
+        this.game.autoFill();
+        return this.game.getSquaresWithValues();
+    }
+}
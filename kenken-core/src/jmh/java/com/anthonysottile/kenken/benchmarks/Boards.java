@@ -0,0 +1,45 @@
+package com.anthonysottile.kenken.benchmarks;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.UserSquare;
+
+import java.util.Random;
+
+/**
+ * Helpers to put boards into a known state before measuring.
+ */
+final class Boards {
+
+    private static final long partialSeed = 42;
+
+    /**
+     * Fills every square with its solution value.
+     */
+    static void solve(KenKenGame game) {
+        int[][] values = game.getLatinSquare().getValues();
+        UserSquare[][] squares = game.getUserSquares();
+        for (int i = 0; i < values.length; i += 1) {
+            for (int j = 0; j < values.length; j += 1) {
+                squares[i][j].setValue(values[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Fills about half of the squares with their solution values, always
+     * picking the same squares, and clears the rest.
+     */
+    static void partiallySolve(KenKenGame game) {
+        Random random = new Random(Boards.partialSeed);
+        int[][] values = game.getLatinSquare().getValues();
+        UserSquare[][] squares = game.getUserSquares();
+        for (int i = 0; i < values.length; i += 1) {
+            for (int j = 0; j < values.length; j += 1) {
+                squares[i][j].setValue(random.nextBoolean() ? values[i][j] : 0);
+            }
+        }
+    }
+
+    private Boards() {
+    }
+}
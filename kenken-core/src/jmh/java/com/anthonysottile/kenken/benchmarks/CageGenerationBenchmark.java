@@ -0,0 +1,55 @@
+package com.anthonysottile.kenken.benchmarks;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.LatinSquare;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures CageGenerator.Generate by laying cages over a fixed solution, and a
+ * full new game (solution plus cages) for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CageGenerationBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "12", "16"})
+    public int order;
+
+    @Param({"3", "4", "6"})
+    public int maxCageSize;
+
+    private LatinSquare latinSquare;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.latinSquare = new LatinSquare(this.order);
+    }
+
+    @Benchmark
+    public KenKenGame generateCages() {
+        return new KenKenGame(this.latinSquare, this.maxCageSize);
+    }
+
+    @Benchmark
+    public KenKenGame newGame() {
+        return new KenKenGame(this.order);
+    }
+}
@@ -0,0 +1,60 @@
+package com.anthonysottile.kenken.benchmarks;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.UserSquare;
+import com.anthonysottile.kenken.cages.ICage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validating every cage of a solved board, which is what the win
+ * check does once every square has a value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CageValidationBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "12", "16"})
+    public int order;
+
+    private List<ICage> cages;
+    private UserSquare[][] userSquares;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        KenKenGame game = new KenKenGame(this.order);
+        Boards.solve(game);
+
+        this.cages = game.getCages();
+        this.userSquares = game.getUserSquares();
+    }
+
+    @Benchmark
+    public int validateAllCages() {
+        int valid = 0;
+        for (ICage cage : this.cages) {
+            if (cage.cageIsValid(this.userSquares)) {
+                valid += 1;
+            }
+        }
+        return valid;
+    }
+}
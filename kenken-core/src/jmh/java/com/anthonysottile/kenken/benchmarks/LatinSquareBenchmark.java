@@ -0,0 +1,52 @@
+package com.anthonysottile.kenken.benchmarks;
+
+import com.anthonysottile.kenken.CyclicLatinSquareGenerator;
+import com.anthonysottile.kenken.JacobsonMatthewsGenerator;
+import com.anthonysottile.kenken.LatinSquare;
+import com.anthonysottile.kenken.LatinSquareGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatinSquareBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "12", "16"})
+    public int order;
+
+    @Param({"cyclic", "jacobsonMatthews"})
+    public String generatorName;
+
+    private LatinSquareGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("cyclic".equals(this.generatorName)) {
+            this.generator = new CyclicLatinSquareGenerator();
+        } else {
+            this.generator = new JacobsonMatthewsGenerator();
+        }
+    }
+
+    @Benchmark
+    public LatinSquare generate() {
+        return new LatinSquare(this.order, this.generator);
+    }
+}
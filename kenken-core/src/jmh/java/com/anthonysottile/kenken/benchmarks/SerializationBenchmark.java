@@ -0,0 +1,72 @@
+package com.anthonysottile.kenken.benchmarks;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.serialization.BinaryGameSerializer;
+import com.anthonysottile.kenken.serialization.JsonGameSerializer;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and restoring a half played game in both formats: binary,
+ * which the activity saves to its bundle and the puzzle pool stores, and JSON,
+ * which is still read from older saves, including the trip through the JSON
+ * string.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "12", "16"})
+    public int order;
+
+    private KenKenGame game;
+    private String savedJson;
+    private byte[] savedBinary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.game = new KenKenGame(this.order);
+        Boards.partiallySolve(this.game);
+
+        this.savedJson = JsonGameSerializer.INSTANCE.serialize(this.game).toString();
+        this.savedBinary = BinaryGameSerializer.INSTANCE.serialize(this.game);
+    }
+
+    @Benchmark
+    public String saveJson() {
+        return JsonGameSerializer.INSTANCE.serialize(this.game).toString();
+    }
+
+    @Benchmark
+    public KenKenGame loadJson() {
+        return JsonGameSerializer.INSTANCE.deserialize(new JSONObject(this.savedJson));
+    }
+
+    @Benchmark
+    public byte[] saveBinary() {
+        return BinaryGameSerializer.INSTANCE.serialize(this.game);
+    }
+
+    @Benchmark
+    public KenKenGame loadBinary() {
+        return BinaryGameSerializer.INSTANCE.deserialize(this.savedBinary);
+    }
+}
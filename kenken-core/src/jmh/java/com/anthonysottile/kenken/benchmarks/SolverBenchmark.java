@@ -0,0 +1,55 @@
+package com.anthonysottile.kenken.benchmarks;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.solver.Solver;
+import com.anthonysottile.kenken.solver.SolverResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a uniqueness check (solving up to a second solution) over a set of
+ * generated puzzles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    private static final int puzzleCount = 32;
+
+    @Param({"4", "5", "6", "7", "8", "9", "12", "16"})
+    public int order;
+
+    private Solver[] solvers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.solvers = new Solver[SolverBenchmark.puzzleCount];
+        for (int i = 0; i < SolverBenchmark.puzzleCount; i += 1) {
+            this.solvers[i] = new Solver(new KenKenGame(this.order));
+        }
+    }
+
+    @Benchmark
+    public SolverResult checkUniqueness() {
+        this.next = (this.next + 1) % SolverBenchmark.puzzleCount;
+        return this.solvers[this.next].solve(2, null);
+    }
+}
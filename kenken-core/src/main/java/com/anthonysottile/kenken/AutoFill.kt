@@ -0,0 +1,187 @@
+package com.anthonysottile.kenken
+
+import com.anthonysottile.kenken.cages.ICage
+
+/**
+ * Fills in every square of a board whose value is forced, either because its
+ *  row and column leave one value or because its cage's arithmetic does.
+ *
+ * Work is kept on two queues, squares to check for a single remaining value
+ *  and cages to check against their combinations.  Placing a value only
+ *  queues the squares in its row and column and their cages, so a cascade
+ *  touches each line once per placed value rather than rescanning the board.
+ *
+ * Keeps scratch state between runs and must not be shared between threads.
+ *
+ * @param board The board to fill in.
+ * @param cages The cages of the board, in the board's cage order.
+ */
+class AutoFill(private val board: Board, private val cages: List<ICage>) {
+    private val order = this.board.order
+    private val full = (1 shl this.order) - 1
+
+    private val squareQueue = IntArray(this.board.squareCount)
+    private val squareQueued = BooleanArray(this.board.squareCount)
+    private var squaresPending = 0
+
+    private val cageQueue = IntArray(this.board.cageCount)
+    private val cageQueued = BooleanArray(this.board.cageCount)
+    private var cagesPending = 0
+
+    private val allowed: IntArray
+    private val supported: IntArray
+
+    init {
+        var largest = 0
+        for (c in 0 until this.board.cageCount) {
+            largest = Math.max(largest, this.board.cageStart[c + 1] - this.board.cageStart[c])
+        }
+        this.allowed = IntArray(largest)
+        this.supported = IntArray(largest)
+    }
+
+    /**
+     * Fills in forced squares until no more can be filled.
+     *
+     * @return The number of squares filled in.
+     */
+    fun run(): Int {
+        for (square in 0 until this.board.squareCount) {
+            this.queueSquare(square)
+        }
+        for (cage in 0 until this.board.cageCount) {
+            this.queueCage(cage)
+        }
+
+        var placed = 0
+        while (true) {
+            if (this.squaresPending > 0) {
+                val square = this.squareQueue[--this.squaresPending]
+                this.squareQueued[square] = false
+                placed += this.fillSingle(square)
+            } else if (this.cagesPending > 0) {
+                val cage = this.cageQueue[--this.cagesPending]
+                this.cageQueued[cage] = false
+                placed += this.fillFromCombinations(cage)
+            } else {
+                return placed
+            }
+        }
+    }
+
+    /**
+     * Fills the square in if its row and column leave it one value.
+     */
+    private fun fillSingle(square: Int): Int {
+        if (this.board.getValue(square) != 0) {
+            return 0
+        }
+
+        val allowed = this.full and this.board.getDisabled(square).inv()
+        if (allowed != 0 && allowed and (allowed - 1) == 0) {
+            this.place(square, allowed)
+            return 1
+        }
+        return 0
+    }
+
+    /**
+     * Fills in the squares of a cage which only one value fits, given the
+     *  cage's arithmetic and the values already in the rows and columns.
+     */
+    private fun fillFromCombinations(cage: Int): Int {
+        val board = this.board
+        val start = board.cageStart[cage]
+        val size = board.cageStart[cage + 1] - start
+
+        var empty = 0
+        for (i in 0 until size) {
+            val square = board.cageSquares[start + i]
+            val value = board.getValue(square)
+            if (value > 0) {
+                this.allowed[i] = 1 shl (value - 1)
+            } else {
+                empty += 1
+                this.allowed[i] = this.full and board.getDisabled(square).inv()
+            }
+        }
+        if (empty == 0) {
+            return 0
+        }
+
+        val table = this.cages[cage].getCombinations(this.order)
+        java.util.Arrays.fill(this.supported, 0, size, 0)
+        for (tuple in table.tuples) {
+            var fits = true
+            for (i in 0 until size) {
+                if (this.allowed[i] and (1 shl (table.valueAt(tuple, i) - 1)) == 0) {
+                    fits = false
+                    break
+                }
+            }
+
+            if (fits) {
+                for (i in 0 until size) {
+                    this.supported[i] = this.supported[i] or (1 shl (table.valueAt(tuple, i) - 1))
+                }
+            }
+        }
+
+        // Every square gets its value from the same consistent assignments,
+        //  so placing several at once is safe.
+        var placed = 0
+        for (i in 0 until size) {
+            val square = board.cageSquares[start + i]
+            val mask = this.supported[i]
+            if (board.getValue(square) == 0 && mask != 0 && mask and (mask - 1) == 0) {
+                this.place(square, mask)
+                placed += 1
+            }
+        }
+        return placed
+    }
+
+    /**
+     * Sets the value and queues what it can force: the empty squares in its
+     *  row and column, their cages and its own cage.
+     */
+    private fun place(square: Int, bit: Int) {
+        this.board.setValue(square, Integer.numberOfTrailingZeros(bit) + 1)
+
+        val x = square / this.order
+        val y = square % this.order
+        for (k in 0 until this.order) {
+            this.queuePeer(this.board.indexOf(x, k))
+            this.queuePeer(this.board.indexOf(k, y))
+        }
+
+        val cage = this.board.squareCage[square]
+        if (cage >= 0) {
+            this.queueCage(cage)
+        }
+    }
+
+    private fun queuePeer(square: Int) {
+        if (this.board.getValue(square) == 0) {
+            this.queueSquare(square)
+            val cage = this.board.squareCage[square]
+            if (cage >= 0) {
+                this.queueCage(cage)
+            }
+        }
+    }
+
+    private fun queueSquare(square: Int) {
+        if (!this.squareQueued[square]) {
+            this.squareQueued[square] = true
+            this.squareQueue[this.squaresPending++] = square
+        }
+    }
+
+    private fun queueCage(cage: Int) {
+        if (!this.cageQueued[cage]) {
+            this.cageQueued[cage] = true
+            this.cageQueue[this.cagesPending++] = cage
+        }
+    }
+}
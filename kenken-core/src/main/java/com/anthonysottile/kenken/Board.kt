@@ -0,0 +1,271 @@
+package com.anthonysottile.kenken
+
+import com.anthonysottile.kenken.cages.ICage
+import java.util.*
+
+/**
+ * The player's side of a game kept in flat arrays: the value and candidates
+ *  of every square, which cage covers each square and the squares of every
+ *  cage.  [KenKenGame] and [UserSquare] are views over a board.
+ *
+ * Squares are indexed x * order + y, the same as the solver.  The squares of
+ *  cage c are cageSquares[cageStart[c] until cageStart[c + 1]].
+ *
+ * The board also keeps the counts needed to tell whether the game is won up
+ *  to date as values are set.  Each cage keeps running aggregates of its
+ *  values, so setting a value updates its cage and checking a cage in either
+ *  direction takes constant time, see [CageArithmetic].
+ *
+ * @param order The size of the game.
+ * @param cages The cages of the game, which must not change afterwards.
+ */
+class Board(val order: Int, private val cages: List<ICage>) {
+    val squareCount = this.order * this.order
+    val cageCount = this.cages.size
+
+    /**
+     * The cage covering each square, -1 for none.
+     */
+    val squareCage = IntArray(this.squareCount) { -1 }
+    val cageStart = IntArray(this.cageCount + 1)
+    val cageSquares: IntArray
+
+    private val values = IntArray(this.squareCount)
+    private val candidates = IntArray(this.squareCount)
+
+    val rowValues = Array(this.order) { LineValues(this.order) }
+    val colValues = Array(this.order) { LineValues(this.order) }
+
+    /**
+     * The number of squares with a value.
+     */
+    var filledCount = 0
+        private set
+
+    private val cageFilled = IntArray(this.cageCount)
+    private val cageSum = IntArray(this.cageCount)
+    private val cageProduct = LongArray(this.cageCount) { 1L }
+
+    // Per cage the number of squares holding each value, cage c's counts at
+    //  c * order, and the values present as a bitmask for the min and max.
+    private val cageValueCounts = IntArray(this.cageCount * this.order)
+    private val cageValues = IntArray(this.cageCount)
+
+    private val cageSatisfied = BooleanArray(this.cageCount)
+
+    /**
+     * The number of cages whose squares currently satisfy the cage.
+     */
+    var satisfiedCages = 0
+        private set
+
+    // Rows and columns holding every value, which once the board is full means
+    //  no line repeats a value.
+    private var completeLines = 0
+
+    private val valueSetListeners = ArrayList<(Int) -> Unit>()
+    private val changedListeners = ArrayList<(Int) -> Unit>()
+
+    init {
+        var total = 0
+        for (cage in this.cages) {
+            total += cage.squares.size
+        }
+
+        this.cageSquares = IntArray(total)
+        var next = 0
+        for ((c, cage) in this.cages.withIndex()) {
+            this.cageStart[c] = next
+            for (p in cage.squares) {
+                val square = this.indexOf(p.x, p.y)
+                this.cageSquares[next] = square
+                this.squareCage[square] = c
+                next += 1
+            }
+        }
+        this.cageStart[this.cageCount] = next
+    }
+
+    /**
+     * Whether every square is filled in, no row or column repeats a value and
+     *  every cage is satisfied.
+     */
+    val isSolved: Boolean
+        get() = this.filledCount == this.squareCount
+                && this.completeLines == 2 * this.order
+                && this.satisfiedCages == this.cageCount
+
+    fun indexOf(x: Int, y: Int): Int {
+        return x * this.order + y
+    }
+
+    fun getValue(square: Int): Int {
+        return this.values[square]
+    }
+
+    fun setValue(square: Int, value: Int) {
+        val old = this.values[square]
+        if (old == value) {
+            return
+        }
+
+        val row = this.rowValues[square / this.order]
+        val col = this.colValues[square % this.order]
+        val full = (1 shl this.order) - 1
+        this.completeLines -= (if (row.mask == full) 1 else 0) + (if (col.mask == full) 1 else 0)
+        if (value != 0) {
+            row.add(value)
+            col.add(value)
+        }
+        if (old != 0) {
+            row.remove(old)
+            col.remove(old)
+        }
+        this.completeLines += (if (row.mask == full) 1 else 0) + (if (col.mask == full) 1 else 0)
+
+        this.values[square] = value
+        if (old == 0 || value == 0) {
+            this.filledCount += if (value != 0) 1 else -1
+        }
+
+        // Only the cage covering the square can have changed
+        val cage = this.squareCage[square]
+        if (cage >= 0) {
+            if (old != 0) {
+                this.removeFromCage(cage, old)
+            }
+            if (value != 0) {
+                this.addToCage(cage, value)
+            }
+
+            val satisfied = this.cageIsSatisfied(cage)
+            if (satisfied != this.cageSatisfied[cage]) {
+                this.cageSatisfied[cage] = satisfied
+                this.satisfiedCages += if (satisfied) 1 else -1
+            }
+        }
+
+        this.valueSetListeners.forEach { it(square) }
+        this.changedListeners.forEach { it(square) }
+    }
+
+    private fun addToCage(cage: Int, value: Int) {
+        this.cageFilled[cage] += 1
+        this.cageSum[cage] += value
+        this.cageProduct[cage] *= value.toLong()
+
+        val count = cage * this.order + value - 1
+        this.cageValueCounts[count] += 1
+        if (this.cageValueCounts[count] == 1) {
+            this.cageValues[cage] = this.cageValues[cage] or (1 shl (value - 1))
+        }
+    }
+
+    private fun removeFromCage(cage: Int, value: Int) {
+        this.cageFilled[cage] -= 1
+        this.cageSum[cage] -= value
+        this.cageProduct[cage] /= value.toLong()
+
+        val count = cage * this.order + value - 1
+        this.cageValueCounts[count] -= 1
+        if (this.cageValueCounts[count] == 0) {
+            this.cageValues[cage] = this.cageValues[cage] and (1 shl (value - 1)).inv()
+        }
+    }
+
+    private fun cageSize(cage: Int): Int {
+        return this.cageStart[cage + 1] - this.cageStart[cage]
+    }
+
+    /**
+     * Returns whether every square of the cage has a value and the values
+     *  satisfy the cage's sign and number.
+     */
+    fun cageIsSatisfied(cage: Int): Boolean {
+        val signNumber = this.cages[cage].signNumber
+        return CageArithmetic.isSatisfied(
+                signNumber.sign,
+                signNumber.number,
+                this.cageFilled[cage],
+                this.cageSize(cage),
+                this.cageSum[cage],
+                this.cageProduct[cage],
+                this.cageValues[cage]
+        )
+    }
+
+    /**
+     * Returns whether the values in the cage can still be completed to
+     *  satisfy it, false once a value entered rules that out.
+     */
+    fun cageCanBeSatisfied(cage: Int): Boolean {
+        val signNumber = this.cages[cage].signNumber
+        return CageArithmetic.canBeSatisfied(
+                signNumber.sign,
+                signNumber.number,
+                this.order,
+                this.cageFilled[cage],
+                this.cageSize(cage),
+                this.cageSum[cage],
+                this.cageProduct[cage],
+                this.cageValues[cage]
+        )
+    }
+
+    /**
+     * Returns the candidates of the square, bit v - 1 set for value v.
+     */
+    fun getCandidates(square: Int): Int {
+        return this.candidates[square]
+    }
+
+    fun setCandidates(square: Int, mask: Int) {
+        if (this.candidates[square] != mask) {
+            this.candidates[square] = mask
+            this.changedListeners.forEach { it(square) }
+        }
+    }
+
+    /**
+     * Returns the values which are already used in the row or column of the
+     *  square, not counting the square's own value, as a bitmask with bit
+     *  v - 1 set for value v.
+     */
+    fun getDisabled(square: Int): Int {
+        val disabled = this.rowValues[square / this.order].mask or this.colValues[square % this.order].mask
+        val value = this.values[square]
+        return if (value > 0) disabled and (1 shl (value - 1)).inv() else disabled
+    }
+
+    /**
+     * Returns the candidates of the square which are not already used in its
+     *  row or column, separated by spaces.
+     */
+    fun getCandidatesString(square: Int): String {
+        return CandidateStrings.get(this.getShownCandidates(square))
+    }
+
+    /**
+     * Returns the candidates of the square which are not already used in its
+     *  row or column, bit v - 1 set for value v.
+     */
+    fun getShownCandidates(square: Int): Int {
+        val disabled = this.rowValues[square / this.order].mask or this.colValues[square % this.order].mask
+        return this.candidates[square] and disabled.inv()
+    }
+
+    /**
+     * Adds a listener called with the square whenever a square's value changes.
+     */
+    fun addValueSetListener(listener: (Int) -> Unit) {
+        this.valueSetListeners.add(listener)
+    }
+
+    /**
+     * Adds a listener called with the square whenever a square's value or
+     *  candidates change.
+     */
+    fun addChangedListener(listener: (Int) -> Unit) {
+        this.changedListeners.add(listener)
+    }
+}
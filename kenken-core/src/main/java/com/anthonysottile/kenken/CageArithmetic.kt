@@ -0,0 +1,95 @@
+package com.anthonysottile.kenken
+
+/**
+ * Checks a cage against its sign and number from running aggregates of the
+ *  values entered in it, so neither check needs to look at the squares.
+ *
+ * Neither check looks at rows and columns: a cage whose values repeat in a
+ *  line can still be satisfied here, the lines catch that on their own.
+ */
+object CageArithmetic {
+
+    /**
+     * Returns whether every square of the cage has a value and the values
+     *  satisfy the cage.
+     *
+     * @param filled  The number of squares of the cage with a value.
+     * @param size    The number of squares in the cage.
+     * @param sum     The sum of the values entered.
+     * @param product The product of the values entered, 1 for none.
+     * @param values  The values entered, bit v - 1 set for value v.
+     */
+    @JvmStatic
+    fun isSatisfied(sign: Sign, number: Int, filled: Int, size: Int, sum: Int, product: Long, values: Int): Boolean {
+        if (filled < size) {
+            return false
+        }
+
+        val min = CageArithmetic.min(values)
+        val max = CageArithmetic.max(values)
+        return when (sign) {
+            Sign.Add -> sum == number
+            Sign.Multiply -> product == number.toLong()
+            Sign.Subtract -> max - min == number
+            Sign.Divide -> max == min * number
+            Sign.None -> sum == number
+        }
+    }
+
+    /**
+     * Returns whether the values entered so far can still be completed to
+     *  satisfy the cage using values from 1 to order.  A full cage can be
+     *  satisfied only if it already is.
+     *
+     * @see isSatisfied
+     */
+    @JvmStatic
+    fun canBeSatisfied(
+            sign: Sign,
+            number: Int,
+            order: Int,
+            filled: Int,
+            size: Int,
+            sum: Int,
+            product: Long,
+            values: Int
+    ): Boolean {
+        val remaining = size - filled
+        if (remaining == 0) {
+            return CageArithmetic.isSatisfied(sign, number, filled, size, sum, product, values)
+        }
+        val min = CageArithmetic.min(values)
+        val max = CageArithmetic.max(values)
+        return when (sign) {
+            Sign.Add -> sum + remaining <= number && sum + remaining * order >= number
+            Sign.Multiply -> number % product == 0L && (remaining > 1 || number / product <= order)
+            Sign.Subtract -> {
+                if (remaining == 1) {
+                    // The last value becomes the new low or high end
+                    (min + number in max..order) || (max - number in 1..min)
+                } else {
+                    Math.max(1, max - number) <= Math.min(min, order - number)
+                }
+            }
+            Sign.Divide -> {
+                if (remaining == 1) {
+                    (min * number in max..order) || (max % number == 0 && max / number <= min)
+                } else {
+                    val low = Math.max(1, (max + number - 1) / number)
+                    low <= min && low * number <= order
+                }
+            }
+            Sign.None -> number in 1..order
+        }
+    }
+
+    // An empty cage has a min above and a max below every value, which the
+    //  range checks above rely on.
+    private fun min(values: Int): Int {
+        return Integer.numberOfTrailingZeros(values) + 1
+    }
+
+    private fun max(values: Int): Int {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(values)
+    }
+}
@@ -0,0 +1,106 @@
+package com.anthonysottile.kenken
+
+/**
+ * The text drawn for a set of candidates, built once per bitmask and reused so
+ *  drawing candidates does not allocate.  A mask's text is the same in every
+ *  order, so one table serves all games.
+ *
+ * Every mask of orders up to 9 has a slot in a table.  Larger orders have far
+ *  too many masks for that, so their text is kept in a bounded hash table
+ *  keyed by the mask itself, so looking one up does not box it.  A mask is
+ *  looked for in a few slots from where it hashes and, when all of them are
+ *  taken, replaces one of them.  The table has over three times as many slots
+ *  as the largest board has squares, so a board's masks rarely push each
+ *  other out.
+ *
+ * Only used from the UI thread.
+ */
+object CandidateStrings {
+    private const val tableSize = 1 shl 9
+
+    /**
+     * The number of texts kept for masks beyond the table, a power of two.
+     */
+    const val capacity = 1 shl 11
+
+    private const val probes = 8
+
+    private val strings = arrayOfNulls<String>(CandidateStrings.tableSize)
+
+    // No mask beyond the table is 0, so 0 marks an empty slot
+    private val largeMasks = IntArray(CandidateStrings.capacity)
+    private val largeStrings = arrayOfNulls<String>(CandidateStrings.capacity)
+
+    // Which of a mask's slots to replace when they are all taken
+    private var victim = 0
+
+    /**
+     * Returns the values of the mask in increasing order separated by spaces.
+     *
+     * @param mask The candidates, bit v - 1 set for value v.
+     */
+    fun get(mask: Int): String {
+        if (mask >= CandidateStrings.tableSize) {
+            return this.getLarge(mask)
+        }
+
+        var text = this.strings[mask]
+        if (text == null) {
+            text = CandidateStrings.build(mask)
+            this.strings[mask] = text
+        }
+        return text
+    }
+
+    private fun getLarge(mask: Int): String {
+        val home = CandidateStrings.hash(mask) and (CandidateStrings.capacity - 1)
+
+        var slot = -1
+        for (probe in 0 until CandidateStrings.probes) {
+            val i = (home + probe) and (CandidateStrings.capacity - 1)
+            val key = this.largeMasks[i]
+            if (key == mask) {
+                return this.largeStrings[i]!!
+            }
+            if (key == 0 && slot < 0) {
+                slot = i
+            }
+        }
+
+        if (slot < 0) {
+            slot = (home + this.victim) and (CandidateStrings.capacity - 1)
+            this.victim = (this.victim + 1) % CandidateStrings.probes
+        }
+
+        val text = CandidateStrings.build(mask)
+        this.largeMasks[slot] = mask
+        this.largeStrings[slot] = text
+        return text
+    }
+
+    /**
+     * Mixes every bit of the mask into the low bits, the finalizer of
+     *  MurmurHash3.
+     */
+    private fun hash(mask: Int): Int {
+        var hash = mask
+        hash = hash xor (hash ushr 16)
+        hash *= -0x7a143595
+        hash = hash xor (hash ushr 13)
+        hash *= -0x3d4d51cb
+        return hash xor (hash ushr 16)
+    }
+
+    private fun build(mask: Int): String {
+        val builder = StringBuilder()
+        var remaining = mask
+        while (remaining != 0) {
+            if (builder.isNotEmpty()) {
+                builder.append(' ')
+            }
+            builder.append(Integer.numberOfTrailingZeros(remaining) + 1)
+            remaining = remaining and (remaining - 1)
+        }
+        return builder.toString()
+    }
+}
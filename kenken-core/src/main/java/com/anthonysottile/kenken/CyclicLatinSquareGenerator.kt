@@ -1,20 +1,22 @@
 package com.anthonysottile.kenken
 
-import org.json.JSONArray
-import org.json.JSONObject
+import java.util.*
 
-class LatinSquare {
-    val values: Array<IntArray>
-    val order: Int
+/**
+ * Builds a cyclic square and then shuffles its rows, swaps one pair of
+ * adjacent columns and shuffles the rows again.  This is cheap but only
+ * reaches a small family of squares.
+ *
+ * @param random The source of randomness for the shuffles.
+ */
+class CyclicLatinSquareGenerator @JvmOverloads constructor(
+        private val random: Random = Random()
+) : LatinSquareGenerator {
 
-    constructor(order: Int) {
-        this.order = order
+    override fun generate(order: Int): Array<IntArray> {
+        val values = Array(order) { IntArray(order) }
 
-        // initialize the numbers array
-        //  but not the inner arrays. Those get made later.
-        this.values = Array(order) { IntArray(order) }
-
-        val picker = NumberPicker(order)
+        val picker = NumberPicker(order, this.random)
 
         // Retrieve the base list
         val baseList = IntArray(order)
@@ -60,46 +62,10 @@ class LatinSquare {
         for (i in 0 until order) {
             val row = picker.getNext() - 1
             for (j in 0 until order) {
-                this.values[i][j] = columns[j][row]
-            }
-        }
-    }
-
-    fun toJson(): JSONObject {
-        val json = JSONObject()
-
-        json.put(LatinSquare.orderProperty, this.order)
-
-        val outerArray = JSONArray()
-        for (row in this.values) {
-            val innerArray = JSONArray()
-            for (x in row) {
-                innerArray.put(x)
-            }
-            outerArray.put(innerArray)
-        }
-
-        json.put(LatinSquare.valuesProperty, outerArray)
-
-        return json
-    }
-
-    constructor(json: JSONObject) {
-        this.order = json.getInt(LatinSquare.orderProperty)
-
-        val outerArray = json.getJSONArray(LatinSquare.valuesProperty)
-
-        this.values = Array(this.order) { IntArray(this.order) }
-        for (i in this.values.indices) {
-            val innerArray = outerArray.getJSONArray(i)
-            for (j in this.values[i].indices) {
-                this.values[i][j] = innerArray.getInt(j)
+                values[i][j] = columns[j][row]
             }
         }
-    }
 
-    companion object {
-        private const val orderProperty = "Order"
-        private const val valuesProperty = "Values"
+        return values
     }
 }
@@ -0,0 +1,113 @@
+package com.anthonysottile.kenken
+
+/**
+ * The time spent playing a game, kept as the time of the segments already
+ *  played plus the start of the current one, all from a monotonic clock so
+ *  wall clock changes do not move it.  Penalties are added to the played
+ *  time.
+ *
+ * @param clock The current time in milliseconds, only ever compared with
+ *              itself.
+ */
+class GameTimer(private val clock: () -> Long = GameTimer.clock) {
+
+    // The time played in finished segments, penalties included
+    private var played = 0L
+    private var segmentStart = 0L
+
+    var isRunning = false
+        private set
+
+    /**
+     * The milliseconds spent playing so far.
+     */
+    val elapsed: Long
+        get() = if (this.isRunning) this.played + this.clock() - this.segmentStart else this.played
+
+    /**
+     * Starts a new segment if the timer is paused.
+     */
+    fun start() {
+        if (!this.isRunning) {
+            this.segmentStart = this.clock()
+            this.isRunning = true
+        }
+    }
+
+    /**
+     * Ends the current segment if the timer is running.
+     */
+    fun pause() {
+        if (this.isRunning) {
+            this.played += this.clock() - this.segmentStart
+            this.isRunning = false
+        }
+    }
+
+    fun penalize(milliseconds: Long) {
+        this.played += milliseconds
+    }
+
+    /**
+     * Sets the time played, keeping the timer running or paused.
+     */
+    fun reset(milliseconds: Long) {
+        this.played = milliseconds
+        this.segmentStart = this.clock()
+    }
+
+    /**
+     * Returns the milliseconds until the elapsed time reaches the next whole
+     *  second, which is when its formatted text next changes.
+     */
+    fun millisUntilNextSecond(): Long {
+        return 1000 - this.elapsed % 1000
+    }
+
+    /**
+     * Writes the elapsed time as hours, minutes and seconds, each at least two
+     *  digits, into the buffer.
+     *
+     * @param buffer At least [formattedLength] characters, more if the
+     *               hours may need more than two digits.
+     * @return The number of characters written.
+     */
+    fun format(buffer: CharArray): Int {
+        val seconds = this.elapsed / 1000
+        var length = GameTimer.writeDigits(buffer, 0, seconds / 3600)
+        buffer[length++] = ':'
+        length = GameTimer.writeDigits(buffer, length, seconds / 60 % 60)
+        buffer[length++] = ':'
+        return GameTimer.writeDigits(buffer, length, seconds % 60)
+    }
+
+    companion object {
+        /**
+         * The length of the formatted time for games under 100 hours.
+         */
+        const val formattedLength = 8
+
+        /**
+         * The clock new timers use unless given one.  The host sets this to
+         *  its own monotonic clock.
+         */
+        @JvmStatic
+        var clock: () -> Long = { System.nanoTime() / 1000000 }
+
+        private fun writeDigits(buffer: CharArray, start: Int, value: Long): Int {
+            var digits = 2
+            var limit = 100L
+            while (value >= limit) {
+                digits += 1
+                limit *= 10
+            }
+
+            var remaining = value
+            for (i in start + digits - 1 downTo start) {
+                buffer[i] = '0' + (remaining % 10).toInt()
+                remaining /= 10
+            }
+            return start + digits
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.anthonysottile.kenken
+
+import java.util.*
+
+/**
+ * Samples latin squares close to uniformly by running the Jacobson-Matthews
+ *  Markov chain from a cyclic square.
+ *
+ * The square is kept as its incidence cube in one flat array, where
+ *  cube[(r * order + c) * order + s] is 1 when row r and column c hold symbol s.
+ *  A chain step moves the cube through "improper" squares, which have exactly
+ *  one -1 entry, and the chain only stops on a proper square.  All of the
+ *  stepping happens in place, so the only allocations are the cube and the
+ *  returned values.
+ *
+ * @param mixingStepsPerCell The number of chain steps taken per square of the
+ *  board before the square is read off.  More steps mix better.
+ * @param random The source of randomness for the chain.
+ */
+class JacobsonMatthewsGenerator @JvmOverloads constructor(
+        private val mixingStepsPerCell: Int = JacobsonMatthewsGenerator.defaultMixingStepsPerCell,
+        private val random: Random = Random()
+) : LatinSquareGenerator {
+
+    override fun generate(order: Int): Array<IntArray> {
+        val cube = IntArray(order * order * order)
+
+        // Start from the cyclic square
+        for (r in 0 until order) {
+            for (c in 0 until order) {
+                cube[(r * order + c) * order + (r + c) % order] = 1
+            }
+        }
+
+        // There is nothing to mix for the trivial square
+        if (order > 1) {
+            val steps = this.mixingStepsPerCell * order * order
+
+            // improper is the flat index of the -1 entry, or -1 if the square is proper
+            var improper = -1
+            var step = 0
+            while (step < steps || improper >= 0) {
+                improper = this.step(cube, order, improper)
+                step += 1
+            }
+        }
+
+        val values = Array(order) { IntArray(order) }
+        for (r in 0 until order) {
+            for (c in 0 until order) {
+                val cell = (r * order + c) * order
+                for (s in 0 until order) {
+                    if (cube[cell + s] == 1) {
+                        values[r][c] = s + 1
+                        break
+                    }
+                }
+            }
+        }
+
+        return values
+    }
+
+    /**
+     * Takes one step of the chain.
+     *
+     * @return The flat index of the -1 entry after the step, or -1 if the
+     *  square is proper again.
+     */
+    private fun step(cube: IntArray, order: Int, improper: Int): Int {
+        val r: Int
+        val c: Int
+        val s: Int
+
+        if (improper < 0) {
+            // Proper square: start from any entry that is 0
+            r = this.random.nextInt(order)
+            c = this.random.nextInt(order)
+
+            val cell = (r * order + c) * order
+            var symbol: Int
+            do {
+                symbol = this.random.nextInt(order)
+            } while (cube[cell + symbol] != 0)
+            s = symbol
+        } else {
+            // Improper square: start from the -1 entry
+            s = improper % order
+            c = improper / order % order
+            r = improper / order / order
+        }
+
+        // Along each line through the start there is one 1 when proper and two when improper
+        val plane = order * order
+        val r1 = this.pickOne(cube, c * order + s, plane, order)
+        val c1 = this.pickOne(cube, r * plane + s, order, order)
+        val s1 = this.pickOne(cube, (r * order + c) * order, 1, order)
+
+        cube[(r * order + c) * order + s] += 1
+        cube[(r * order + c1) * order + s1] += 1
+        cube[(r1 * order + c) * order + s1] += 1
+        cube[(r1 * order + c1) * order + s] += 1
+
+        cube[(r * order + c) * order + s1] -= 1
+        cube[(r * order + c1) * order + s] -= 1
+        cube[(r1 * order + c) * order + s] -= 1
+
+        val last = (r1 * order + c1) * order + s1
+        cube[last] -= 1
+
+        return if (cube[last] < 0) last else -1
+    }
+
+    /**
+     * Finds the position along a line of the cube holding a 1.  If there are
+     *  two, one of them is chosen at random.
+     */
+    private fun pickOne(cube: IntArray, start: Int, stride: Int, order: Int): Int {
+        var first = -1
+        var index = start
+        for (i in 0 until order) {
+            if (cube[index] == 1) {
+                if (first < 0) {
+                    first = i
+                } else {
+                    return if (this.random.nextBoolean()) first else i
+                }
+            }
+            index += stride
+        }
+        return first
+    }
+
+    companion object {
+        const val defaultMixingStepsPerCell = 16
+    }
+}
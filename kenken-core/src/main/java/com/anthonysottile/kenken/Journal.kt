@@ -0,0 +1,251 @@
+package com.anthonysottile.kenken
+
+/**
+ * Undo and redo for a [Board], kept as a journal of the changes made to it.
+ *
+ * Every change is a record of two ints in a ring buffer: the square, whether
+ *  its value or its candidates changed and whether the record starts a
+ *  transaction, then the old state xor the new one.  The xor is its own
+ *  inverse, so the same record takes the square back or forward and undoing
+ *  touches only the squares that changed.
+ *
+ * Changes made between [beginTransaction] and [endTransaction], such as the
+ *  squares an auto fill sets, are undone together.  Any other change is a
+ *  transaction of its own.
+ *
+ * The buffer grows as needed up to [maxRecords] records, after which the
+ *  oldest transactions are forgotten, so long games use bounded memory.
+ *
+ * @param board      The board to journal, listened to from now on.
+ * @param maxRecords The most records kept.
+ */
+class Journal @JvmOverloads constructor(
+        private val board: Board,
+        private val maxRecords: Int = Journal.defaultMaxRecords
+) {
+    private var records = IntArray(2 * Math.min(Journal.initialRecords, this.maxRecords))
+    private val capacity: Int
+        get() = this.records.size / 2
+
+    // The records kept start at head, and those before the cursor can be
+    //  undone while those after it can be redone
+    private var head = 0
+    private var count = 0
+    private var cursor = 0
+
+    // The state last journaled for every square, since the board reports
+    //  changes without saying what changed
+    private val values = IntArray(this.board.squareCount)
+    private val candidates = IntArray(this.board.squareCount)
+
+    private var depth = 0
+    private var transactionStarted = false
+    private var replaying = false
+
+    val canUndo: Boolean
+        get() = this.cursor > 0
+
+    val canRedo: Boolean
+        get() = this.cursor < this.count
+
+    init {
+        if (this.maxRecords < 1) {
+            throw IllegalArgumentException("The journal must keep at least one record")
+        }
+
+        for (square in 0 until this.board.squareCount) {
+            this.values[square] = this.board.getValue(square)
+            this.candidates[square] = this.board.getCandidates(square)
+        }
+
+        this.board.addChangedListener(this::changed)
+    }
+
+    /**
+     * Starts grouping changes into one transaction, until the matching
+     *  [endTransaction].  Transactions may nest, the outermost one counts.
+     */
+    fun beginTransaction() {
+        if (this.depth == 0) {
+            this.transactionStarted = false
+        }
+        this.depth += 1
+    }
+
+    fun endTransaction() {
+        if (this.depth == 0) {
+            throw IllegalStateException("No transaction to end")
+        }
+        this.depth -= 1
+    }
+
+    /**
+     * Runs the block as one transaction.
+     */
+    inline fun <T> transaction(block: () -> T): T {
+        this.beginTransaction()
+        try {
+            return block()
+        } finally {
+            this.endTransaction()
+        }
+    }
+
+    /**
+     * Undoes the last transaction not yet undone.
+     *
+     * @return Whether there was one.
+     */
+    fun undo(): Boolean {
+        if (this.depth > 0) {
+            throw IllegalStateException("Cannot undo inside a transaction")
+        }
+        if (this.cursor == 0) {
+            return false
+        }
+
+        this.replaying = true
+        try {
+            while (this.cursor > 0) {
+                this.cursor -= 1
+                val header = this.apply(this.cursor)
+                if (header and Journal.beginBit != 0) {
+                    break
+                }
+            }
+        } finally {
+            this.replaying = false
+        }
+        return true
+    }
+
+    /**
+     * Redoes the last transaction undone.
+     *
+     * @return Whether there was one.
+     */
+    fun redo(): Boolean {
+        if (this.depth > 0) {
+            throw IllegalStateException("Cannot redo inside a transaction")
+        }
+        if (this.cursor == this.count) {
+            return false
+        }
+
+        this.replaying = true
+        try {
+            do {
+                this.apply(this.cursor)
+                this.cursor += 1
+            } while (this.cursor < this.count && this.header(this.cursor) and Journal.beginBit == 0)
+        } finally {
+            this.replaying = false
+        }
+        return true
+    }
+
+    private fun changed(square: Int) {
+        val value = this.board.getValue(square)
+        val candidates = this.board.getCandidates(square)
+
+        if (!this.replaying) {
+            if (value != this.values[square]) {
+                this.record(square, 0, value xor this.values[square])
+            }
+            if (candidates != this.candidates[square]) {
+                this.record(square, Journal.candidatesBit, candidates xor this.candidates[square])
+            }
+        }
+
+        this.values[square] = value
+        this.candidates[square] = candidates
+    }
+
+    private fun record(square: Int, kind: Int, delta: Int) {
+        // A new change makes what was undone unreachable
+        this.count = this.cursor
+
+        var header = (square shl 2) or kind
+        if (this.depth == 0 || !this.transactionStarted) {
+            header = header or Journal.beginBit
+            this.transactionStarted = this.depth > 0
+        }
+
+        if (this.count == this.capacity) {
+            if (this.capacity < this.maxRecords) {
+                this.grow()
+            } else {
+                this.forgetOldest()
+            }
+        }
+
+        val slot = 2 * ((this.head + this.count) % this.capacity)
+        this.records[slot] = header
+        this.records[slot + 1] = delta
+        this.count += 1
+        this.cursor = this.count
+    }
+
+    private fun grow() {
+        val capacity = Math.min(2 * this.capacity, this.maxRecords)
+        val records = IntArray(2 * capacity)
+        for (i in 0 until this.count) {
+            val slot = 2 * ((this.head + i) % this.capacity)
+            records[2 * i] = this.records[slot]
+            records[2 * i + 1] = this.records[slot + 1]
+        }
+
+        this.records = records
+        this.head = 0
+    }
+
+    /**
+     * Drops the oldest transaction, whole so undo never stops half way
+     *  through one.
+     */
+    private fun forgetOldest() {
+        do {
+            this.head = (this.head + 1) % this.capacity
+            this.count -= 1
+        } while (this.count > 0 && this.header(0) and Journal.beginBit == 0)
+        this.cursor = this.count
+    }
+
+    /**
+     * Returns the header of the i-th record kept.
+     */
+    private fun header(i: Int): Int {
+        return this.records[2 * ((this.head + i) % this.capacity)]
+    }
+
+    /**
+     * Flips the square of the i-th record kept between its old and new state.
+     *
+     * @return The record's header.
+     */
+    private fun apply(i: Int): Int {
+        val slot = 2 * ((this.head + i) % this.capacity)
+        val header = this.records[slot]
+        val delta = this.records[slot + 1]
+
+        val square = header ushr 2
+        if (header and Journal.candidatesBit == 0) {
+            this.board.setValue(square, this.board.getValue(square) xor delta)
+        } else {
+            this.board.setCandidates(square, this.board.getCandidates(square) xor delta)
+        }
+        return header
+    }
+
+    companion object {
+        /**
+         * Enough for hundreds of moves on the largest boards, in 32 KB.
+         */
+        const val defaultMaxRecords = 4096
+
+        private const val initialRecords = 64
+
+        private const val beginBit = 1
+        private const val candidatesBit = 2
+    }
+}
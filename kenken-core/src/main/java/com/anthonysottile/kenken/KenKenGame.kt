@@ -0,0 +1,194 @@
+package com.anthonysottile.kenken
+
+import com.anthonysottile.kenken.cages.CageCatalog
+import com.anthonysottile.kenken.cages.CageGenerator
+import com.anthonysottile.kenken.cages.GenerationStatistics
+import com.anthonysottile.kenken.cages.ICage
+import java.util.*
+
+class KenKenGame {
+
+    /**
+     * The time spent playing, running from when the game is created.
+     */
+    val timer = GameTimer()
+
+    val latinSquare: LatinSquare
+
+    /**
+     * The seed the whole game was generated from, or null if the cages were
+     *  laid out over a given latin square.
+     */
+    val seed: Long?
+
+    /**
+     * The values and candidates the player entered.  Created once the cages
+     *  are laid out.
+     */
+    lateinit var board: Board
+        private set
+
+    /**
+     * Views over the squares of the board, indexed [x][y].
+     */
+    lateinit var userSquares: Array<Array<UserSquare>>
+        private set
+
+    val squaresWithValues: Int
+        get() = this.board.filledCount
+
+    val rowValues: Array<LineValues>
+        get() = this.board.rowValues
+
+    val colValues: Array<LineValues>
+        get() = this.board.colValues
+
+    /**
+     * The squares already covered by a cage, one element per row with a bit
+     *  per column.
+     */
+    val cageSquareOccupied: LongArray
+
+    val cages: MutableList<ICage> = ArrayList()
+
+    /**
+     * How generating the cages went, or null for restored games.
+     */
+    var generationStatistics: GenerationStatistics? = null
+
+    /**
+     * The number of cages whose squares currently satisfy the cage.
+     */
+    val satisfiedCages: Int
+        get() = this.board.satisfiedCages
+
+    /**
+     * Whether every square is filled in and every cage is satisfied.  The
+     *  board keeps this up to date as values are set, so checking it is free.
+     */
+    val isSolved: Boolean
+        get() = this.board.isSolved
+
+    private fun squareIsOffBoard(p: Point): Boolean {
+        val order = this.latinSquare.order
+
+        return p.x >= order || p.y >= order || p.x < 0 || p.y < 0
+    }
+
+    fun squareIsValid(p: Point): Boolean {
+        return !this.squareIsOffBoard(p) && !this.squareIsOccupied(p.x, p.y)
+    }
+
+    fun squareIsOccupied(x: Int, y: Int): Boolean {
+        return this.cageSquareOccupied[y] and (1L shl x) != 0L
+    }
+
+    fun setOccupied(p: Point) {
+        this.cageSquareOccupied[p.y] = this.cageSquareOccupied[p.y] or (1L shl p.x)
+    }
+
+    fun clearOccupied(p: Point) {
+        this.cageSquareOccupied[p.y] = this.cageSquareOccupied[p.y] and (1L shl p.x).inv()
+    }
+
+    private fun postInitialize() {
+        // For shared "constructor" code, once the cages are final
+
+        this.timer.start()
+
+        val order = this.latinSquare.order
+        this.board = Board(order, this.cages)
+        this.userSquares = Array(order) { i ->
+            Array(order) { j -> UserSquare(this.board, this.board.indexOf(i, j)) }
+        }
+    }
+
+    /**
+     * Generates a new game from a fresh seed, so that the same puzzle can be
+     *  generated again.  Like every seeded game its repairs are bounded by
+     *  search rather than the clock, see [CageGenerator.Generate].
+     */
+    constructor(order: Int) : this(order, SplitMix64.newSeed())
+
+    /**
+     * Generates the game for a seed.  The same order and seed always give the
+     *  same solution and cages, on any thread or device.
+     *
+     * @param order The size of the game.
+     * @param seed  The seed every random choice is taken from.
+     */
+    constructor(order: Int, seed: Long) {
+        val random = SplitMix64(seed)
+        this.seed = seed
+        this.latinSquare = LatinSquare(order, random.split())
+        this.cageSquareOccupied = LongArray(order)
+
+        CageGenerator.Generate(this, random, CageCatalog.defaultMaxSize)
+
+        this.postInitialize()
+    }
+
+    /**
+     * Lays out new cages over an existing solution.
+     *
+     * @param latinSquare The solution of the game.
+     * @param maxCageSize The largest cage to lay out, from 1 to
+     *                    [CageCatalog.maxSupportedSize].
+     */
+    @JvmOverloads
+    constructor(latinSquare: LatinSquare, maxCageSize: Int = CageCatalog.defaultMaxSize) {
+        this.seed = null
+        this.latinSquare = latinSquare
+        val order = latinSquare.order
+
+        this.cageSquareOccupied = LongArray(order)
+
+        CageGenerator.Generate(this, CageGenerator.defaultBudgetMillis, maxCageSize)
+
+        this.postInitialize()
+    }
+
+    /**
+     * Returns the values which are already used in the row or column of the
+     *  square, not counting the square's own value, as a bitmask with bit
+     *  v - 1 set for value v.
+     */
+    fun getDisabled(x: Int, y: Int): Int {
+        return this.board.getDisabled(this.board.indexOf(x, y))
+    }
+
+    private var autoFiller: AutoFill? = null
+
+    /**
+     * Fills in every square whose value is forced, either by its cage or by
+     *  the values already in its row and column, until no more squares can
+     *  be filled.
+     */
+    fun autoFill() {
+        val autoFiller = this.autoFiller ?: AutoFill(this.board, this.cages)
+        this.autoFiller = autoFiller
+        autoFiller.run()
+    }
+
+    /**
+     * Restores a game from its persisted parts.  The user squares start out
+     *  empty and are expected to be filled in by the caller, which keeps the
+     *  board's counts up to date as it goes.
+     *
+     * @param latinSquare The solution of the game.
+     * @param cages       The cages laid out over the solution.
+     * @param elapsed     The milliseconds already spent playing the game.
+     * @param seed        The seed the game was generated from, if any.
+     */
+    constructor(latinSquare: LatinSquare, cages: List<ICage>, elapsed: Long, seed: Long? = null) {
+        this.timer.reset(elapsed)
+
+        this.seed = seed
+        this.latinSquare = latinSquare
+        val order = latinSquare.order
+        this.cageSquareOccupied = LongArray(order)
+        this.cages.addAll(cages)
+
+        this.postInitialize()
+    }
+}
@@ -0,0 +1,44 @@
+package com.anthonysottile.kenken
+
+import java.util.*
+
+class LatinSquare {
+    val values: Array<IntArray>
+    val order: Int
+
+    constructor(order: Int) : this(order, LatinSquare.defaultGenerator)
+
+    /**
+     * Generates a new square.
+     *
+     * @param order     The size of the square.
+     * @param generator The strategy used to fill in the square.
+     */
+    constructor(order: Int, generator: LatinSquareGenerator) {
+        this.order = order
+        this.values = generator.generate(order)
+    }
+
+    /**
+     * Generates a new square with the default strategy, taking every random
+     *  choice from the given generator.
+     */
+    constructor(order: Int, random: Random) : this(order, JacobsonMatthewsGenerator(random = random))
+
+    /**
+     * Restores a previously generated square.
+     *
+     * @param values The values of the square, indexed [x][y].
+     */
+    constructor(values: Array<IntArray>) {
+        this.order = values.size
+        this.values = values
+    }
+
+    companion object {
+        /**
+         * The generator used when none is given.
+         */
+        val defaultGenerator: LatinSquareGenerator = JacobsonMatthewsGenerator()
+    }
+}
@@ -0,0 +1,15 @@
+package com.anthonysottile.kenken
+
+/**
+ * Strategy for filling in the values of a new [LatinSquare].
+ */
+interface LatinSquareGenerator {
+
+    /**
+     * Generates the values of a latin square.
+     *
+     * @param order The size of the square.
+     * @return The values 1..order of the square, indexed [x][y].
+     */
+    fun generate(order: Int): Array<IntArray>
+}
@@ -0,0 +1,46 @@
+package com.anthonysottile.kenken
+
+/**
+ * The values entered in one row or column of a game.
+ *
+ * Values are counted, so entering a value twice in a line and clearing one of
+ *  them leaves the other in place.  The values present are also kept as a
+ *  bitmask with bit v - 1 set for value v, which makes combining a row and a
+ *  column a single or.
+ *
+ * @param order The size of the game.
+ */
+class LineValues(order: Int) {
+    private val counts = IntArray(order + 1)
+
+    /**
+     * The values present, bit v - 1 set for value v.
+     */
+    var mask = 0
+        private set
+
+    val size: Int
+        get() = Integer.bitCount(this.mask)
+
+    fun isEmpty(): Boolean {
+        return this.mask == 0
+    }
+
+    operator fun contains(value: Int): Boolean {
+        return this.mask and (1 shl (value - 1)) != 0
+    }
+
+    fun add(value: Int) {
+        this.counts[value] += 1
+        if (this.counts[value] == 1) {
+            this.mask = this.mask or (1 shl (value - 1))
+        }
+    }
+
+    fun remove(value: Int) {
+        this.counts[value] -= 1
+        if (this.counts[value] == 0) {
+            this.mask = this.mask and (1 shl (value - 1)).inv()
+        }
+    }
+}
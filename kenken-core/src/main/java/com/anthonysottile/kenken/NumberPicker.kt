@@ -2,7 +2,16 @@ package com.anthonysottile.kenken
 
 import java.util.*
 
-class NumberPicker(private val length: Int) {
+/**
+ * Draws the numbers 1..length in random order without repeats.
+ *
+ * @param length The largest number drawn.
+ * @param random The source of randomness, a shared one unless given.
+ */
+class NumberPicker @JvmOverloads constructor(
+        private val length: Int,
+        private val random: Random = NumberPicker.random
+) {
     private var attempted = 0
     private val collection = IntArray(length)
 
@@ -17,7 +26,7 @@ class NumberPicker(private val length: Int) {
 
         val lastCardIndex = this.length - this.attempted - 1
 
-        val drawn = NumberPicker.random.nextInt(this.length - this.attempted)
+        val drawn = this.random.nextInt(this.length - this.attempted)
 
         // swap the drawn number with the last
         val temp = this.collection[drawn]
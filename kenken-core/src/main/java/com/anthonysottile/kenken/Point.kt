@@ -0,0 +1,10 @@
+package com.anthonysottile.kenken
+
+/**
+ * Immutable coordinate on a 0, 0 upper left coordinate plane.  The engine uses
+ * this instead of android.graphics.Point so that it can run on any JVM.
+ *
+ * @param x The column of the coordinate.
+ * @param y The row of the coordinate.
+ */
+data class Point(@JvmField val x: Int, @JvmField val y: Int)
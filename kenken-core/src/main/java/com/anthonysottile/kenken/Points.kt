@@ -1,8 +1,5 @@
 package com.anthonysottile.kenken
 
-import android.graphics.Point
-import org.json.JSONObject
-
 object Points {
 
     /**
@@ -20,9 +17,6 @@ object Points {
      */
     val Right = Point(1, 0)
 
-    private const val xProperty = "X"
-    private const val yProperty = "Y"
-
     /**
      * Adds the two points and returns a new point.
      *
@@ -44,20 +38,4 @@ object Points {
     fun multiply(multiplier: Int, p: Point): Point {
         return Point(p.x * multiplier, p.y * multiplier)
     }
-
-    fun toJson(p: Point): JSONObject {
-        val json = JSONObject()
-
-        json.put(Points.xProperty, p.x)
-        json.put(Points.yProperty, p.y)
-
-        return json
-    }
-
-    fun toPoint(json: JSONObject): Point {
-        return Point(
-                json.getInt(Points.xProperty),
-                json.getInt(Points.yProperty)
-        )
-    }
 }
@@ -0,0 +1,3 @@
+package com.anthonysottile.kenken
+
+class RenderLine(val position: Point, val length: Int, val horizontal: Boolean)
@@ -0,0 +1,8 @@
+package com.anthonysottile.kenken
+
+class SignNumber(val sign: Sign, val number: Int) {
+
+    override fun toString(): String {
+        return "${this.number} ${this.sign}"
+    }
+}
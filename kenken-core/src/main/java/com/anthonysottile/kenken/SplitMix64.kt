@@ -0,0 +1,63 @@
+package com.anthonysottile.kenken
+
+import java.util.*
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * A small, fast generator whose whole state is one long, so a 64-bit seed
+ *  fixes every number it returns.  Generation takes a [Random], so this extends
+ *  it; unlike [Random] it has no atomic state, and must not be shared between
+ *  threads.  Each thread takes its own generator from [split] or a seed.
+ *
+ * The numbers are the SplitMix64 sequence: a counter stepped by the golden
+ *  ratio and put through a 64-bit finalizer.
+ *
+ * @param seed The seed, any value is fine.
+ */
+class SplitMix64(seed: Long) : Random(seed) {
+    private var state = seed
+
+    override fun setSeed(seed: Long) {
+        super.setSeed(seed)
+        this.state = seed
+    }
+
+    override fun next(bits: Int): Int {
+        return (this.nextLong() ushr (64 - bits)).toInt()
+    }
+
+    override fun nextLong(): Long {
+        this.state += SplitMix64.golden
+        return SplitMix64.mix(this.state)
+    }
+
+    /**
+     * Returns a new generator seeded from this one.  Its numbers do not
+     *  overlap this generator's in any practical run, and taking it always
+     *  advances this generator by exactly one long.
+     */
+    fun split(): SplitMix64 {
+        return SplitMix64(this.nextLong())
+    }
+
+    companion object {
+        private const val golden = -0x61c8864680b583ebL
+
+        private val seeds = AtomicLong(System.nanoTime())
+
+        /**
+         * Returns a new seed, different for every call.
+         */
+        @JvmStatic
+        fun newSeed(): Long {
+            return SplitMix64.mix(SplitMix64.seeds.addAndGet(SplitMix64.golden))
+        }
+
+        private fun mix(value: Long): Long {
+            var z = value
+            z = (z xor (z ushr 30)) * -0x40a7b892e31b1a47L
+            z = (z xor (z ushr 27)) * -0x6b2fb644ecceee15L
+            return z xor (z ushr 31)
+        }
+    }
+}
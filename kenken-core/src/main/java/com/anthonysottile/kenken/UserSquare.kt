@@ -0,0 +1,49 @@
+package com.anthonysottile.kenken
+
+/**
+ * One square of a [Board], as the player sees it.  The state lives in the
+ *  board, so squares are cheap and listeners are added to the board.
+ *
+ * @param board  The board the square belongs to.
+ * @param square The index of the square in the board.
+ */
+class UserSquare(private val board: Board, val square: Int) {
+
+    var value: Int
+        get() = this.board.getValue(this.square)
+        set(x) = this.board.setValue(this.square, x)
+
+    /**
+     * The candidates the user marked, bit v - 1 set for value v.
+     */
+    val candidateMask: Int
+        get() = this.board.getCandidates(this.square)
+
+    /**
+     * The candidates which are not already used in the square's row or
+     *  column, bit v - 1 set for value v.
+     */
+    val shownCandidates: Int
+        get() = this.board.getShownCandidates(this.square)
+
+    /**
+     * Returns the candidates which are not already used in the square's row
+     *  or column, separated by spaces.  The strings are shared, so this does
+     *  not allocate.
+     */
+    fun getCandidatesString(): String {
+        return this.board.getCandidatesString(this.square)
+    }
+
+    fun hasCandidate(value: Int): Boolean {
+        return this.candidateMask and (1 shl (value - 1)) != 0
+    }
+
+    fun addCandidate(value: Int) {
+        this.board.setCandidates(this.square, this.candidateMask or (1 shl (value - 1)))
+    }
+
+    fun removeCandidate(value: Int) {
+        this.board.setCandidates(this.square, this.candidateMask and (1 shl (value - 1)).inv())
+    }
+}
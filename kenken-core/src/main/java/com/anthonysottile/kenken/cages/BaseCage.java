@@ -0,0 +1,148 @@
+package com.anthonysottile.kenken.cages;
+
+import com.anthonysottile.kenken.CageArithmetic;
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.Point;
+import com.anthonysottile.kenken.RenderLine;
+import com.anthonysottile.kenken.SignNumber;
+import com.anthonysottile.kenken.UserSquare;
+import com.anthonysottile.kenken.solver.CageCombinations;
+import com.anthonysottile.kenken.solver.CombinationTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public abstract class BaseCage implements ICage {
+
+    SignNumber signNumber;
+    private List<RenderLine> renderLines;
+    final List<Point> squares = new ArrayList<>();
+    Point signLocation;
+
+    private int layout = -1;
+    private CombinationTable combinations;
+    private SignNumber combinationsSignNumber;
+    private int combinationsOrder;
+
+    public SignNumber getSignNumber() {
+        return this.signNumber;
+    }
+
+    public List<RenderLine> getRenderLines() {
+        // Built from the squares the first time the cage is drawn
+        if (this.renderLines == null) {
+            this.renderLines = CageOutline.Build(this.squares);
+        }
+        return this.renderLines;
+    }
+
+    public List<Point> getSquares() {
+        return this.squares;
+    }
+
+    public Point getSignLocation() {
+        return this.signLocation;
+    }
+
+    public boolean cageIsValid(UserSquare[][] userSquares) {
+
+        int sum = 0;
+        long product = 1;
+        int values = 0;
+        int squaresSize = this.squares.size();
+        for (int i = 0; i < squaresSize; i += 1) {
+            Point point = this.squares.get(i);
+            int value = userSquares[point.x][point.y].getValue();
+            if (value == 0) {
+                return false;
+            }
+
+            sum += value;
+            product *= value;
+            values |= 1 << (value - 1);
+        }
+
+        return CageArithmetic.isSatisfied(
+                this.signNumber.getSign(),
+                this.signNumber.getNumber(),
+                squaresSize,
+                squaresSize,
+                sum,
+                product,
+                values
+        );
+    }
+
+    public CombinationTable getCombinations(int order) {
+        // Hold on to the table until the sign changes, which saves the cache
+        //  lookup on every validation.
+        if (this.combinations == null
+                || this.combinationsSignNumber != this.signNumber
+                || this.combinationsOrder != order) {
+
+            if (this.layout < 0) {
+                this.layout = CageCombinations.layout(this.squares);
+            }
+
+            this.combinations = CageCombinations.get(
+                    this.signNumber.getSign(),
+                    this.signNumber.getNumber(),
+                    this.squares.size(),
+                    order,
+                    this.layout
+            );
+            this.combinationsSignNumber = this.signNumber;
+            this.combinationsOrder = order;
+        }
+
+        return this.combinations;
+    }
+
+    /**
+     * Picks a new sign and number for the cage from the game's solution.
+     *
+     * @param game   The game the cage belongs to.
+     * @param random The source of randomness for the sign.
+     */
+    void resign(KenKenGame game, Random random) {
+        int[][] values = game.getLatinSquare().getValues();
+
+        int squaresSize = this.squares.size();
+        int[] cageValues = new int[squaresSize];
+        for (int i = 0; i < squaresSize; i += 1) {
+            Point point = this.squares.get(i);
+            cageValues[i] = values[point.x][point.y];
+        }
+
+        this.signNumber = CageGenerator.DetermineSign(cageValues, random);
+    }
+
+    private static class RestoredCage extends BaseCage {
+
+        RestoredCage(SignNumber signNumber, List<Point> squares, Point signLocation) {
+            this.signNumber = signNumber;
+            this.squares.addAll(squares);
+            this.signLocation = signLocation;
+        }
+    }
+
+    /**
+     * Rebuilds a cage from its persisted parts.
+     *
+     * @param signNumber   The sign and number of the cage.
+     * @param squares      The squares the cage covers.
+     * @param signLocation The square the cage text is drawn in.
+     * @return The restored cage.
+     */
+    public static ICage ToCage(
+            SignNumber signNumber,
+            List<Point> squares,
+            Point signLocation) {
+
+        return new RestoredCage(signNumber, squares, signLocation);
+    }
+
+    BaseCage() {
+    }
+}
@@ -0,0 +1,187 @@
+package com.anthonysottile.kenken.cages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Every fixed polyomino up to a maximum number of squares, enumerated once
+ * and kept as {@link CageShape}s the generator draws from.
+ * <p>
+ * Each cage size gets a share of the drawing weight which is split evenly
+ * between the shapes of that size, so adding the many larger shapes does
+ * not crowd out the small cages.
+ */
+public final class CageCatalog {
+
+    /**
+     * The largest cage generated unless asked otherwise.
+     */
+    public static final int defaultMaxSize = 4;
+
+    /**
+     * The largest cage size a catalog can be built for.
+     */
+    public static final int maxSupportedSize = 6;
+
+    // The share of the drawing weight for each cage size, by size.  Single
+    //  squares are never drawn, they are what is left when nothing fits.
+    private static final int[] sizeWeights = {0, 0, 8, 8, 4, 2, 1};
+
+    // Spread the share of a size over its shapes without rounding to zero
+    private static final int weightScale = 1000;
+
+    private static final CageCatalog[] catalogs = new CageCatalog[CageCatalog.maxSupportedSize + 1];
+
+    /**
+     * Returns the catalog of shapes with up to the given number of squares.
+     * Catalogs are immutable and shared.
+     *
+     * @param maxSize The largest cage size, from 1 to maxSupportedSize.
+     */
+    public static synchronized CageCatalog GetInstance(int maxSize) {
+        if (maxSize < 1 || maxSize > CageCatalog.maxSupportedSize) {
+            throw new IllegalArgumentException("Cage sizes must be from 1 to " + CageCatalog.maxSupportedSize);
+        }
+
+        if (CageCatalog.catalogs[maxSize] == null) {
+            CageCatalog.catalogs[maxSize] = new CageCatalog(maxSize);
+        }
+
+        return CageCatalog.catalogs[maxSize];
+    }
+
+    private final int maxSize;
+    private final CageShape[] shapes;
+    private final int[] weights;
+    private final int[] shapeCounts;
+
+    /**
+     * Grows every shape of one size into the shapes of the next size by
+     * adding a neighbouring square, keeping the ones not seen yet.
+     */
+    private static List<int[][]> grow(List<int[][]> shapes) {
+        List<int[][]> grown = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int[][] neighbours = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+        for (int[][] shape : shapes) {
+            for (int[] square : shape) {
+                for (int[] neighbour : neighbours) {
+                    int x = square[0] + neighbour[0];
+                    int y = square[1] + neighbour[1];
+                    if (CageCatalog.contains(shape, x, y)) {
+                        continue;
+                    }
+
+                    int[][] candidate = Arrays.copyOf(shape, shape.length + 1);
+                    candidate[shape.length] = new int[]{x, y};
+                    CageCatalog.normalize(candidate);
+
+                    if (seen.add(Arrays.deepToString(candidate))) {
+                        grown.add(candidate);
+                    }
+                }
+            }
+        }
+
+        return grown;
+    }
+
+    private static boolean contains(int[][] shape, int x, int y) {
+        for (int[] square : shape) {
+            if (square[0] == x && square[1] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorts the squares in reading order and moves the shape so that the
+     * first square is at the origin.
+     */
+    private static void normalize(int[][] shape) {
+        Arrays.sort(shape, (a, b) -> a[1] != b[1] ? a[1] - b[1] : a[0] - b[0]);
+
+        int anchorX = shape[0][0];
+        int anchorY = shape[0][1];
+        for (int i = 0; i < shape.length; i += 1) {
+            shape[i] = new int[]{shape[i][0] - anchorX, shape[i][1] - anchorY};
+        }
+    }
+
+    private CageCatalog(int maxSize) {
+        this.maxSize = maxSize;
+        this.shapeCounts = new int[maxSize + 1];
+
+        List<CageShape> shapes = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+
+        List<int[][]> sized = new ArrayList<>();
+        sized.add(new int[][]{{0, 0}});
+        for (int size = 1; size <= maxSize; size += 1) {
+            if (size > 1) {
+                sized = CageCatalog.grow(sized);
+            }
+            this.shapeCounts[size] = sized.size();
+
+            int weight = Math.max(1, CageCatalog.sizeWeights[size] * CageCatalog.weightScale / sized.size());
+            for (int[][] squares : sized) {
+                int[] dx = new int[size];
+                int[] dy = new int[size];
+                for (int i = 0; i < size; i += 1) {
+                    dx[i] = squares[i][0];
+                    dy[i] = squares[i][1];
+                }
+
+                shapes.add(new CageShape(dx, dy));
+                weights.add(size == 1 ? 0 : weight);
+            }
+        }
+
+        this.shapes = shapes.toArray(new CageShape[0]);
+        this.weights = new int[weights.size()];
+        for (int i = 0; i < this.weights.length; i += 1) {
+            this.weights[i] = weights.get(i);
+        }
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Returns the number of shapes in the catalog with the given number of
+     * squares.
+     */
+    public int getShapeCount(int size) {
+        return size < 1 || size > this.maxSize ? 0 : this.shapeCounts[size];
+    }
+
+    /**
+     * Returns the one square shape, used when nothing larger fits.
+     */
+    ICageFactory getSingleSquare() {
+        return this.shapes[0];
+    }
+
+    /**
+     * Returns a new set to draw shapes of two or more squares from.  Drawing
+     * changes the set, so every generation needs its own.
+     *
+     * @param random The source of randomness for the draws.
+     */
+    CageFactorySet createFactorySet(Random random) {
+        int count = this.shapes.length - 1;
+        ICageFactory[] factories = new ICageFactory[count];
+        int[] weights = new int[count];
+        System.arraycopy(this.shapes, 1, factories, 0, count);
+        System.arraycopy(this.weights, 1, weights, 0, count);
+
+        return new CageFactorySet(factories, weights, random);
+    }
+}
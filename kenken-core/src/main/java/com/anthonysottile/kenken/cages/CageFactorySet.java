@@ -24,7 +24,7 @@ class CageFactorySet {
         }
     }
 
-    private final Random random = new Random();
+    private final Random random;
 
     private final WeightedTuple[] weightedCollection;
     private final int length;
@@ -32,7 +32,8 @@ class CageFactorySet {
     private final int weightSum;
     private int weightLeft;
 
-    public CageFactorySet(ICageFactory[] factories, int[] weights) {
+    public CageFactorySet(ICageFactory[] factories, int[] weights, Random random) {
+        this.random = random;
         this.attempted = 0;
         this.length = factories.length;
 
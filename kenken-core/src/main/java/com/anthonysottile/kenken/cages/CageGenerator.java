@@ -0,0 +1,476 @@
+package com.anthonysottile.kenken.cages;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.Point;
+import com.anthonysottile.kenken.Sign;
+import com.anthonysottile.kenken.SignNumber;
+import com.anthonysottile.kenken.SplitMix64;
+import com.anthonysottile.kenken.solver.Solver;
+import com.anthonysottile.kenken.solver.SolverResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class CageGenerator {
+
+    private static final int maxRand = 100;
+
+    /**
+     * The default time allowed for repairing a puzzle's cages before the
+     * generator only pins squares, see {@link #Generate(KenKenGame, long, int)}.
+     */
+    public static final long defaultBudgetMillis = 250;
+
+    /**
+     * Every this many repairs the generator falls back to pinning a square.
+     */
+    private static final int pinInterval = 4;
+
+    /**
+     * The search nodes allowed for one uniqueness check, whatever the order.
+     * A check needs as many nodes as the puzzle needs branches, which grows
+     * with how much the cages leave open rather than with the squares.  When
+     * a check runs out, pinning the square propagation left most open takes
+     * out much of the search, which at large orders converges faster than
+     * searching longer: at 25x25 a budget of 250 averaged 0.75 s, one of 2000
+     * four seconds.
+     */
+    private static final int solverNodeBudget = 250;
+
+    /**
+     * The search nodes of a seeded generation after which repairs only pin,
+     * standing in for the time budget.  Seeded generation cannot look at the
+     * clock, or the same seed would give different puzzles on faster devices.
+     */
+    private static final int seededNodeBudget = 20 * CageGenerator.solverNodeBudget;
+
+    /**
+     * Returns the maximum of the integer array.
+     *
+     * @param numbers The numbers to extract the maximum from.
+     * @return The maximum in the array of integers.
+     */
+    public static int max(int[] numbers) {
+        int max = numbers[0];
+        for (int i = 1; i < numbers.length; i += 1) {
+            if (numbers[i] > max) {
+                max = numbers[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the minimum of the integer array.
+     *
+     * @param numbers The numbers to extract the minimum from.
+     * @return The minimum in the array of integers.
+     */
+    public static int min(int[] numbers) {
+        int min = numbers[0];
+        for (int i = 1; i < numbers.length; i += 1) {
+            if (numbers[i] < min) {
+                min = numbers[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Returns the sum of the integer array.
+     *
+     * @param numbers The numbers to sum.
+     * @return The sum of the integers.
+     */
+    public static int sum(int[] numbers) {
+        int sum = 0;
+        for (int number : numbers) {
+            sum += number;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the product of the integer array.  Large cages of large orders
+     * can overflow an int, so the product is a long.
+     *
+     * @param numbers The numbers to multiply.
+     * @return The product of the integers.
+     */
+    public static long product(int[] numbers) {
+        long product = 1;
+        for (int number : numbers) {
+            product *= number;
+        }
+        return product;
+    }
+
+    /**
+     * Picks a sign and number for a cage over the given values of the
+     * solution.
+     *
+     * @param numbers The values of the cage's squares.
+     * @param random  The source of randomness for the sign.
+     */
+    public static SignNumber DetermineSign(int[] numbers, Random random) {
+
+        int max = CageGenerator.max(numbers);
+        int min = CageGenerator.min(numbers);
+        long product = CageGenerator.product(numbers);
+
+        // (0, 0) divide
+        // (0, 0) subtract
+        // [0, 50) multiply [50%]
+        // [50, 100) add [50%]
+        int divideCutOff = 0;
+        int subtractCutOff = 0;
+        int multiplyCutOff = 50;
+
+        if (numbers.length == 1) {
+            // one numbered cages have no sign
+            return new SignNumber(Sign.None, numbers[0]);
+
+        } else if (numbers.length == 2) {
+            // division and subtraction are only valid for two number cages
+
+            // (0, 0) divide [0%]
+            // [0, 20) subtract [20%]
+            // [20, 60) multiply [40%]
+            // [60, 100) add [45%]
+            subtractCutOff += 20;
+            multiplyCutOff += 10;
+
+            if (max % min == 0) {
+                // can do division
+                // [0, 15) divide [15%]
+                // [15, 30) subtract [15%]
+                // [30, 65) multiply [35%]
+                // [65, 100) add [35%]
+                divideCutOff += 15;
+                subtractCutOff += 10;
+                multiplyCutOff += 5;
+            }
+        }
+
+        int randomNumber = random.nextInt(CageGenerator.maxRand);
+        if (randomNumber < divideCutOff) {
+
+            return new SignNumber(Sign.Divide, max / min);
+
+        } else if (randomNumber < subtractCutOff) {
+
+            return new SignNumber(Sign.Subtract, max - min);
+
+        } else if (randomNumber < multiplyCutOff && product <= Integer.MAX_VALUE) {
+
+            // Products which do not fit a cage number are given as sums
+            return new SignNumber(Sign.Multiply, (int) product);
+
+        } else {
+            return new SignNumber(Sign.Add, CageGenerator.sum(numbers));
+        }
+    }
+
+    private static void layOut(
+            KenKenGame game,
+            CageCatalog catalog,
+            CageFactorySet cageFactories,
+            Random random) {
+
+        int order = game.getLatinSquare().getOrder();
+
+        // Iterate through the rows and try shapes drawn from the catalog at every free square
+        int row = 0;
+        while (row < order) {
+            int column = 0;
+            while (column < order) {
+                if (game.squareIsOccupied(column, row)) {
+                    column++;
+                    continue;
+                }
+
+                // reset it so we are drawing anew
+                cageFactories.Reset();
+
+                boolean appliedACage = false;
+                while (cageFactories.hasFactoriesLeft()) {
+                    ICageFactory factory = cageFactories.GetFactory();
+
+                    if (factory.CanFit(game, column, row)) {
+                        factory.ApplyCage(game, new Point(column, row), random);
+                        appliedACage = true;
+                        break;
+                    }
+                }
+
+                // if no cage was applied, then the 1x1 is the only choice left
+                if (!appliedACage) {
+                    catalog.getSingleSquare().ApplyCage(game, new Point(column, row), random);
+                }
+
+                column++;
+            }
+            row++;
+        }
+    }
+
+    /**
+     * Returns a solution which is not the game's latin square, or null if
+     * the solver only found the latin square.
+     */
+    private static int[][] otherSolution(SolverResult result, int[][] latinSquare) {
+        for (int[][] solution : result.getSolutions()) {
+            for (int i = 0; i < latinSquare.length; i += 1) {
+                for (int j = 0; j < latinSquare.length; j += 1) {
+                    if (solution[i][j] != latinSquare[i][j]) {
+                        return solution;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void removeCage(KenKenGame game, ICage cage) {
+        game.getCages().remove(cage);
+        for (Point p : cage.getSquares()) {
+            game.clearOccupied(p);
+        }
+    }
+
+    /**
+     * Replaces the cage by a one square cage at one of the given squares.  The
+     * rest of the cage's squares are left for the next lay out.
+     */
+    private static void pin(
+            KenKenGame game,
+            CageCatalog catalog,
+            ICage cage,
+            List<Point> squares,
+            Random random,
+            GenerationStatistics statistics) {
+
+        CageGenerator.removeCage(game, cage);
+        catalog.getSingleSquare().ApplyCage(game, squares.get(random.nextInt(squares.size())), random);
+        statistics.pinned();
+    }
+
+    /**
+     * Pins a square when the solver gave up before finding a second solution
+     * to repair against.  The square is taken from the cage whose squares
+     * propagation left the most candidates, where the search has to branch
+     * most, so the pin removes the most search as well as solutions.
+     */
+    private static void pinUndetermined(
+            KenKenGame game,
+            CageCatalog catalog,
+            CageFactorySet cageFactories,
+            Solver solver,
+            Random random,
+            GenerationStatistics statistics) {
+
+        int order = game.getLatinSquare().getOrder();
+
+        ICage widest = null;
+        int widestScore = 0;
+        int ties = 0;
+        for (ICage cage : game.getCages()) {
+            if (cage.getSquares().size() < 2) {
+                continue;
+            }
+
+            int score = 0;
+            for (Point p : cage.getSquares()) {
+                score += Integer.bitCount(solver.getPropagatedCandidates(p.x * order + p.y)) - 1;
+            }
+
+            // Ties are broken at random, keeping each tied cage equally likely
+            if (score > widestScore) {
+                widest = cage;
+                widestScore = score;
+                ties = 1;
+            } else if (score == widestScore && score > 0 && random.nextInt(++ties) == 0) {
+                widest = cage;
+            }
+        }
+        if (widest == null) {
+            return;
+        }
+
+        Point square = null;
+        int squareCount = 0;
+        for (Point p : widest.getSquares()) {
+            int count = Integer.bitCount(solver.getPropagatedCandidates(p.x * order + p.y));
+            if (count > squareCount) {
+                square = p;
+                squareCount = count;
+            }
+        }
+
+        List<Point> squares = new ArrayList<>();
+        squares.add(square);
+        CageGenerator.pin(game, catalog, widest, squares, random, statistics);
+        CageGenerator.layOut(game, catalog, cageFactories, random);
+    }
+
+    /**
+     * Changes the cages covering squares where the other solution differs from
+     * the latin square.  Most of the time this gives those cages new signs or
+     * lays them out again; every few repairs, and every repair once the
+     * budget is spent, one of the squares is made into a one square cage,
+     * which always removes at least one solution.
+     */
+    private static void repair(
+            KenKenGame game,
+            CageCatalog catalog,
+            CageFactorySet cageFactories,
+            int[][] other,
+            boolean pinOnly,
+            Random random,
+            GenerationStatistics statistics) {
+
+        int[][] latinSquare = game.getLatinSquare().getValues();
+
+        List<ICage> differing = new ArrayList<>();
+        for (ICage cage : game.getCages()) {
+            for (Point p : cage.getSquares()) {
+                if (other[p.x][p.y] != latinSquare[p.x][p.y]) {
+                    differing.add(cage);
+                    break;
+                }
+            }
+        }
+
+        if (pinOnly || statistics.getRepairIterations() % CageGenerator.pinInterval == 0) {
+            ICage cage = differing.get(random.nextInt(differing.size()));
+
+            List<Point> squares = new ArrayList<>();
+            for (Point p : cage.getSquares()) {
+                if (other[p.x][p.y] != latinSquare[p.x][p.y]) {
+                    squares.add(p);
+                }
+            }
+
+            CageGenerator.pin(game, catalog, cage, squares, random, statistics);
+
+        } else if (random.nextBoolean()) {
+            for (ICage cage : differing) {
+                ((BaseCage) cage).resign(game, random);
+                statistics.resigned();
+            }
+            return;
+
+        } else {
+            for (ICage cage : differing) {
+                CageGenerator.removeCage(game, cage);
+                statistics.recaged();
+            }
+        }
+
+        CageGenerator.layOut(game, catalog, cageFactories, random);
+    }
+
+    public static void Generate(KenKenGame game) {
+        CageGenerator.Generate(game, CageGenerator.defaultBudgetMillis, CageCatalog.defaultMaxSize);
+    }
+
+    /**
+     * Lays out cages over the game's latin square, then repairs them until the
+     * puzzle has exactly one solution.  Repairs only touch cages covering
+     * squares where a second solution differs, so most of the layout is kept.
+     * Each uniqueness check has a bounded number of search nodes; when a large
+     * puzzle needs more, a square is pinned and the check runs again.
+     * <p>
+     * Every pin takes a square out of the larger cages, so pinning alone
+     * always ends with a unique puzzle.  Once the budget is spent every repair
+     * pins, which bounds generation at the cost of a few more given squares.
+     *
+     * @param game         The game to lay cages out in.
+     * @param budgetMillis The time allowed for repairs which keep the cages
+     *                     larger, new signs and new layouts.
+     * @param maxCageSize  The largest cage to lay out, see {@link CageCatalog}.
+     */
+    public static void Generate(KenKenGame game, long budgetMillis, int maxCageSize) {
+        CageGenerator.Generate(
+                game,
+                new SplitMix64(SplitMix64.newSeed()),
+                System.nanoTime() + budgetMillis * 1000000,
+                Integer.MAX_VALUE,
+                maxCageSize
+        );
+    }
+
+    /**
+     * Lays out cages as {@link #Generate(KenKenGame, long, int)} does, taking
+     * every random choice from the given generator.  Repairs only pin after a
+     * fixed amount of search rather than time, so the same game and generator
+     * state always give the same cages.
+     *
+     * @param game        The game to lay cages out in.
+     * @param random      The source of randomness for the layout.
+     * @param maxCageSize The largest cage to lay out, see {@link CageCatalog}.
+     */
+    public static void Generate(KenKenGame game, Random random, int maxCageSize) {
+        CageGenerator.Generate(
+                game,
+                random,
+                Long.MAX_VALUE,
+                CageGenerator.seededNodeBudget,
+                maxCageSize
+        );
+    }
+
+    /**
+     * @param deadline The {@link System#nanoTime()} after which repairs only
+     *                 pin.
+     * @param maxNodes The search nodes after which repairs only pin.
+     */
+    private static void Generate(
+            KenKenGame game,
+            Random random,
+            long deadline,
+            int maxNodes,
+            int maxCageSize) {
+
+        long start = System.nanoTime();
+        GenerationStatistics statistics = new GenerationStatistics();
+        CageCatalog catalog = CageCatalog.GetInstance(maxCageSize);
+        CageFactorySet cageFactories = catalog.createFactorySet(random);
+
+        CageGenerator.layOut(game, catalog, cageFactories, random);
+
+        int order = game.getLatinSquare().getOrder();
+        int[][] latinSquare = game.getLatinSquare().getValues();
+
+        // The solver's scratch state is sized by the squares, so one is kept
+        // and given the cages again after every repair
+        Solver solver = new Solver(order);
+
+        while (true) {
+            solver.setCages(game.getCages());
+            SolverResult result = solver.solve(2, null, CageGenerator.solverNodeBudget);
+            statistics.solved(result.getNodes());
+
+            int[][] other = CageGenerator.otherSolution(result, latinSquare);
+            if (other == null && result.isComplete()) {
+                break;
+            }
+
+            boolean pinOnly = System.nanoTime() >= deadline || statistics.getSolverNodes() >= maxNodes;
+
+            statistics.repairIteration();
+            if (other == null) {
+                CageGenerator.pinUndetermined(game, catalog, cageFactories, solver, random, statistics);
+            } else {
+                CageGenerator.repair(game, catalog, cageFactories, other, pinOnly, random, statistics);
+            }
+        }
+
+        statistics.finish(System.nanoTime() - start);
+        game.setGenerationStatistics(statistics);
+    }
+
+    private CageGenerator() {
+    }
+}
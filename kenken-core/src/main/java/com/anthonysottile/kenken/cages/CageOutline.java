@@ -0,0 +1,170 @@
+package com.anthonysottile.kenken.cages;
+
+import com.anthonysottile.kenken.Point;
+import com.anthonysottile.kenken.RenderLine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the outline of a cage from the squares it covers: every run of grid
+ * edges with the cage on exactly one side, collinear edges merged into one
+ * line.  Works for any polyomino, so outlines never need to be saved.
+ * <p>
+ * Outlines are kept per shape relative to the shape's top left corner, so
+ * every cage of the same shape shares one computation.
+ */
+final class CageOutline {
+
+    // Shapes fitting in this many rows and columns are keyed by their
+    //  occupancy mask and cached; larger ones are rare and built every time.
+    private static final int maxCachedExtent = 8;
+
+    private static final Map<Long, CageOutline> outlines = new HashMap<>();
+
+    // The lines relative to the shape's top left corner
+    private final int[] lineX;
+    private final int[] lineY;
+    private final int[] lineLength;
+    private final boolean[] lineHorizontal;
+
+    /**
+     * Returns the outline of the squares.
+     */
+    static List<RenderLine> Build(List<Point> squares) {
+        if (squares.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Point p : squares) {
+            minX = Math.min(minX, p.x);
+            minY = Math.min(minY, p.y);
+            maxX = Math.max(maxX, p.x);
+            maxY = Math.max(maxY, p.y);
+        }
+
+        int width = maxX - minX + 1;
+        int height = maxY - minY + 1;
+        boolean[] covered = new boolean[width * height];
+        for (Point p : squares) {
+            covered[(p.y - minY) * width + p.x - minX] = true;
+        }
+
+        CageOutline outline;
+        if (width <= CageOutline.maxCachedExtent && height <= CageOutline.maxCachedExtent) {
+            long key = 0;
+            for (Point p : squares) {
+                key |= 1L << ((p.y - minY) * CageOutline.maxCachedExtent + p.x - minX);
+            }
+
+            synchronized (CageOutline.outlines) {
+                outline = CageOutline.outlines.get(key);
+            }
+            if (outline == null) {
+                outline = new CageOutline(covered, width, height);
+                synchronized (CageOutline.outlines) {
+                    CageOutline.outlines.put(key, outline);
+                }
+            }
+        } else {
+            outline = new CageOutline(covered, width, height);
+        }
+
+        return outline.toRenderLines(minX, minY);
+    }
+
+    /**
+     * Walks every grid line crossing the shape and keeps the runs of edges
+     * which have the shape on exactly one side.
+     *
+     * @param covered The squares of the shape, row by row.
+     */
+    private CageOutline(boolean[] covered, int width, int height) {
+        int capacity = 2 * (width + 1) * (height + 1);
+        int[] x = new int[capacity];
+        int[] y = new int[capacity];
+        int[] length = new int[capacity];
+        boolean[] horizontal = new boolean[capacity];
+        int lines = 0;
+
+        for (int row = 0; row <= height; row += 1) {
+            int runStart = 0;
+            int runLength = 0;
+            for (int column = 0; column <= width; column += 1) {
+                boolean edge = column < width
+                        && CageOutline.covers(covered, width, height, column, row - 1)
+                        != CageOutline.covers(covered, width, height, column, row);
+                if (edge) {
+                    if (runLength == 0) {
+                        runStart = column;
+                    }
+                    runLength += 1;
+                } else if (runLength > 0) {
+                    x[lines] = runStart;
+                    y[lines] = row;
+                    length[lines] = runLength;
+                    horizontal[lines] = true;
+                    lines += 1;
+                    runLength = 0;
+                }
+            }
+        }
+
+        for (int column = 0; column <= width; column += 1) {
+            int runStart = 0;
+            int runLength = 0;
+            for (int row = 0; row <= height; row += 1) {
+                boolean edge = row < height
+                        && CageOutline.covers(covered, width, height, column - 1, row)
+                        != CageOutline.covers(covered, width, height, column, row);
+                if (edge) {
+                    if (runLength == 0) {
+                        runStart = row;
+                    }
+                    runLength += 1;
+                } else if (runLength > 0) {
+                    x[lines] = column;
+                    y[lines] = runStart;
+                    length[lines] = runLength;
+                    horizontal[lines] = false;
+                    lines += 1;
+                    runLength = 0;
+                }
+            }
+        }
+
+        this.lineX = new int[lines];
+        this.lineY = new int[lines];
+        this.lineLength = new int[lines];
+        this.lineHorizontal = new boolean[lines];
+        System.arraycopy(x, 0, this.lineX, 0, lines);
+        System.arraycopy(y, 0, this.lineY, 0, lines);
+        System.arraycopy(length, 0, this.lineLength, 0, lines);
+        System.arraycopy(horizontal, 0, this.lineHorizontal, 0, lines);
+    }
+
+    private static boolean covers(boolean[] covered, int width, int height, int column, int row) {
+        return column >= 0 && column < width && row >= 0 && row < height
+                && covered[row * width + column];
+    }
+
+    private List<RenderLine> toRenderLines(int x, int y) {
+        List<RenderLine> lines = new ArrayList<>(this.lineX.length);
+        for (int i = 0; i < this.lineX.length; i += 1) {
+            lines.add(
+                    new RenderLine(
+                            new Point(x + this.lineX[i], y + this.lineY[i]),
+                            this.lineLength[i],
+                            this.lineHorizontal[i]
+                    )
+            );
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,108 @@
+package com.anthonysottile.kenken.cages;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.Point;
+
+import java.util.Random;
+
+/**
+ * One fixed polyomino from the {@link CageCatalog}, with everything needed
+ * to place it precomputed: the offsets of its squares from the anchor and one
+ * occupancy mask per row.  Outlines come from {@link CageOutline}.
+ * <p>
+ * The anchor is the shape's first square in reading order, which is the
+ * square the cage generator is filling when it tries the shape, so no
+ * square is above the anchor or left of it in the anchor's row.
+ */
+final class CageShape implements ICageFactory {
+
+    // Offsets of the squares from the anchor, in reading order
+    private final int[] dx;
+    private final int[] dy;
+
+    // How far left of the anchor the shape reaches, as a non-negative number
+    private final int left;
+    private final int width;
+    private final int height;
+
+    // Bit i of rowMasks[dy] covers the square left + i columns from the
+    //  shape's leftmost column, dy rows below the anchor.
+    private final long[] rowMasks;
+
+    /**
+     * @param dx The column offsets of the squares from the anchor.
+     * @param dy The row offsets of the squares from the anchor, in the same
+     *           reading order as dx.
+     */
+    CageShape(int[] dx, int[] dy) {
+        this.dx = dx;
+        this.dy = dy;
+
+        int minX = 0;
+        int maxX = 0;
+        int maxY = 0;
+        for (int i = 0; i < dx.length; i += 1) {
+            minX = Math.min(minX, dx[i]);
+            maxX = Math.max(maxX, dx[i]);
+            maxY = Math.max(maxY, dy[i]);
+        }
+
+        this.left = -minX;
+        this.width = maxX - minX + 1;
+        this.height = maxY + 1;
+
+        this.rowMasks = new long[this.height];
+        for (int i = 0; i < dx.length; i += 1) {
+            this.rowMasks[dy[i]] |= 1L << (dx[i] - minX);
+        }
+    }
+
+    int getSize() {
+        return this.dx.length;
+    }
+
+    /**
+     * Returns whether the shape anchored at the square is on the board and
+     * covers no square which is already in a cage.
+     */
+    public boolean CanFit(KenKenGame game, int x, int y) {
+        int order = game.getLatinSquare().getOrder();
+        int column = x - this.left;
+        if (column < 0 || column + this.width > order || y + this.height > order) {
+            return false;
+        }
+
+        long[] occupied = game.getCageSquareOccupied();
+        for (int row = 0; row < this.height; row += 1) {
+            if ((occupied[y + row] & (this.rowMasks[row] << column)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void ApplyCage(KenKenGame game, Point location, Random random) {
+        game.getCages().add(new ShapedCage(game, this, location, random));
+    }
+
+    /**
+     * A cage laid out from a shape in the catalog.
+     */
+    private static class ShapedCage extends BaseCage {
+
+        ShapedCage(KenKenGame game, CageShape shape, Point location, Random random) {
+            this.signLocation = location;
+
+            int[][] values = game.getLatinSquare().getValues();
+            int[] cageValues = new int[shape.dx.length];
+            for (int i = 0; i < shape.dx.length; i += 1) {
+                Point square = new Point(location.x + shape.dx[i], location.y + shape.dy[i]);
+                game.setOccupied(square);
+                this.squares.add(square);
+                cageValues[i] = values[square.x][square.y];
+            }
+
+            this.signNumber = CageGenerator.DetermineSign(cageValues, random);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.anthonysottile.kenken.cages;
+
+/**
+ * Counters describing how the cages of one puzzle were generated.  Every
+ * generated puzzle is proven to have a single solution, so these only tell
+ * how much work that took.
+ */
+public final class GenerationStatistics {
+
+    private int repairIterations;
+    private int resigns;
+    private int recages;
+    private int pins;
+    private int solverNodes;
+    private long elapsedNanos;
+
+    /**
+     * @return How many times the generator had to change cages because the
+     * puzzle had more than one solution.
+     */
+    public int getRepairIterations() {
+        return this.repairIterations;
+    }
+
+    /**
+     * @return How many cages were given a new sign and number.
+     */
+    public int getResigns() {
+        return this.resigns;
+    }
+
+    /**
+     * @return How many cages were removed and laid out again.
+     */
+    public int getRecages() {
+        return this.recages;
+    }
+
+    /**
+     * @return How many squares were turned into one square cages.
+     */
+    public int getPins() {
+        return this.pins;
+    }
+
+    /**
+     * @return The search nodes the solver visited across all uniqueness checks.
+     */
+    public int getSolverNodes() {
+        return this.solverNodes;
+    }
+
+    /**
+     * @return The time spent laying out and repairing cages.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    void repairIteration() {
+        this.repairIterations += 1;
+    }
+
+    void resigned() {
+        this.resigns += 1;
+    }
+
+    void recaged() {
+        this.recages += 1;
+    }
+
+    void pinned() {
+        this.pins += 1;
+    }
+
+    void solved(int nodes) {
+        this.solverNodes += nodes;
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "repairs=" + this.repairIterations +
+                " resigns=" + this.resigns +
+                " recages=" + this.recages +
+                " pins=" + this.pins +
+                " nodes=" + this.solverNodes +
+                " ms=" + this.elapsedNanos / 1000000;
+    }
+
+    GenerationStatistics() {
+    }
+}
@@ -1,12 +1,10 @@
 package com.anthonysottile.kenken.cages;
 
-import android.graphics.Point;
-
+import com.anthonysottile.kenken.Point;
 import com.anthonysottile.kenken.RenderLine;
 import com.anthonysottile.kenken.SignNumber;
 import com.anthonysottile.kenken.UserSquare;
-
-import org.json.JSONObject;
+import com.anthonysottile.kenken.solver.CombinationTable;
 
 import java.util.List;
 
@@ -22,5 +20,10 @@ public interface ICage {
 
     boolean cageIsValid(UserSquare[][] userSquares);
 
-    JSONObject ToJson();
+    /**
+     * Returns every assignment of values satisfying the cage.
+     *
+     * @param order The size of the puzzle.
+     */
+    CombinationTable getCombinations(int order);
 }
@@ -0,0 +1,22 @@
+package com.anthonysottile.kenken.cages;
+
+import com.anthonysottile.kenken.KenKenGame;
+import com.anthonysottile.kenken.Point;
+
+import java.util.Random;
+
+public interface ICageFactory {
+
+    /**
+     * Returns whether the cage fits with its anchor at the square, without
+     * allocating.
+     */
+    boolean CanFit(KenKenGame game, int x, int y);
+
+    /**
+     * Lays the cage out with its anchor at the location.
+     *
+     * @param random The source of randomness for the cage's sign.
+     */
+    void ApplyCage(KenKenGame game, Point location, Random random);
+}
@@ -0,0 +1,235 @@
+package com.anthonysottile.kenken.pool
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.serialization.GameSerializer
+import java.util.*
+import java.util.concurrent.Executor
+
+/**
+ * Keeps a few ready made puzzles for every game size so that starting a game
+ *  does not have to wait on generation.  Hard mode only changes how a game is
+ *  played, so both settings draw from the same pool.
+ *
+ * Taking a puzzle is a dequeue.  Refilling happens on the executor, one
+ *  refill at a time per pool and one puzzle per task so a taker waiting on a
+ *  puzzle is not queued behind a whole refill.  Every change to a pool is
+ *  written to the store so puzzles survive the process being killed, one
+ *  write at a time per pool so an older snapshot never overwrites a newer one.
+ *
+ * @param executor   Runs generation and persistence off the caller's thread.
+ * @param deliver    Runs the callbacks of puzzles generated on the executor,
+ *                   on Android the main thread.
+ * @param store      Where serialized puzzles are persisted.
+ * @param serializer Converts puzzles for the store.
+ * @param capacity   How many puzzles each pool tries to keep.
+ */
+class PuzzlePool(
+        private val executor: Executor,
+        private val deliver: Executor,
+        private val store: PuzzleStore,
+        private val serializer: GameSerializer<String>,
+        private val capacity: Int = PuzzlePool.defaultCapacity
+) {
+
+    /**
+     * A pooled puzzle.  Puzzles restored from the store are only deserialized
+     *  when they are taken.
+     */
+    private class Entry(var game: KenKenGame?, val data: String)
+
+    private class Pool(val key: String) {
+        val entries = ArrayDeque<Entry>()
+        var loaded = false
+        var refilling = false
+
+        // Held while writing to the store
+        val persisting = Any()
+    }
+
+    private val pools = HashMap<String, Pool>()
+
+    private fun getPool(size: Int): Pool {
+        val key = size.toString()
+        synchronized(this.pools) {
+            var pool = this.pools[key]
+            if (pool == null) {
+                pool = Pool(key)
+                this.pools[key] = pool
+            }
+            return pool
+        }
+    }
+
+    /**
+     * Must be called holding the pool's lock.
+     */
+    private fun ensureLoaded(pool: Pool) {
+        if (!pool.loaded) {
+            pool.loaded = true
+            for (data in this.store.load(pool.key)) {
+                pool.entries.addLast(Entry(null, data))
+            }
+
+            // Earlier versions kept a second pool of the same puzzles for
+            //  hard mode, which is folded into this one
+            val hardKey = pool.key + PuzzlePool.legacyHardSuffix
+            val hard = this.store.load(hardKey)
+            if (hard.isNotEmpty()) {
+                for (data in hard) {
+                    pool.entries.addLast(Entry(null, data))
+                }
+                this.store.save(hardKey, emptyList())
+                this.executor.execute { this.persist(pool) }
+            }
+        }
+    }
+
+    /**
+     * Must be called holding the pool's lock.
+     */
+    private fun snapshot(pool: Pool): List<String> {
+        val puzzles = ArrayList<String>(pool.entries.size)
+        for (entry in pool.entries) {
+            puzzles.add(entry.data)
+        }
+        return puzzles
+    }
+
+    /**
+     * Writes the pool to the store.  The snapshot is taken while holding the
+     *  pool's write lock, so whichever write runs last saves the latest
+     *  puzzles.
+     */
+    private fun persist(pool: Pool) {
+        synchronized(pool.persisting) {
+            val puzzles = synchronized(pool) { this.snapshot(pool) }
+            this.store.save(pool.key, puzzles)
+        }
+    }
+
+    /**
+     * Returns the number of puzzles ready for the given size.
+     */
+    fun available(size: Int): Int {
+        val pool = this.getPool(size)
+        synchronized(pool) {
+            this.ensureLoaded(pool)
+            return pool.entries.size
+        }
+    }
+
+    /**
+     * Starts filling the pool for the given size in the background if it is
+     *  not already full or being filled.
+     */
+    fun prefill(size: Int) {
+        val pool = this.getPool(size)
+        synchronized(pool) {
+            if (pool.refilling) {
+                return
+            }
+            pool.refilling = true
+        }
+
+        this.executor.execute { this.refill(pool, size) }
+    }
+
+    /**
+     * Adds one puzzle to the pool and queues the next, until it is full.
+     */
+    private fun refill(pool: Pool, size: Int) {
+        val full = synchronized(pool) {
+            this.ensureLoaded(pool)
+            if (pool.entries.size >= this.capacity) {
+                pool.refilling = false
+            }
+            !pool.refilling
+        }
+        if (full) {
+            return
+        }
+
+        try {
+            val game = KenKenGame(size)
+            val entry = Entry(game, this.serializer.serialize(game))
+            synchronized(pool) {
+                pool.entries.addLast(entry)
+            }
+            this.persist(pool)
+        } catch (e: RuntimeException) {
+            synchronized(pool) {
+                pool.refilling = false
+            }
+            throw e
+        }
+
+        this.executor.execute { this.refill(pool, size) }
+    }
+
+    /**
+     * Takes the first readable puzzle of the pool, dropping unreadable ones,
+     *  or returns null if there is none.
+     */
+    private fun poll(pool: Pool): KenKenGame? {
+        var taken = false
+        try {
+            while (true) {
+                val entry = synchronized(pool) {
+                    this.ensureLoaded(pool)
+                    pool.entries.pollFirst()
+                } ?: return null
+                taken = true
+
+                val game = entry.game
+                if (game != null) {
+                    return game
+                }
+                try {
+                    return this.serializer.deserialize(entry.data)
+                } catch (e: Exception) {
+                    // A puzzle saved by an older version; try the next one
+                }
+            }
+        } finally {
+            if (taken) {
+                this.executor.execute { this.persist(pool) }
+            }
+        }
+    }
+
+    /**
+     * Takes a puzzle for the given size and starts refilling the pool.  A
+     *  ready puzzle is handed to the callback before this returns.  Otherwise
+     *  one is generated on the executor and handed over through [deliver],
+     *  so the calling thread never waits on generation.
+     *
+     * @param callback Given a new game with its clock started when it is
+     *                 handed over.
+     */
+    fun take(size: Int, callback: (KenKenGame) -> Unit) {
+        val pool = this.getPool(size)
+
+        val game = this.poll(pool)
+        if (game != null) {
+            game.timer.reset(0)
+            callback(game)
+        } else {
+            // Queued before the refill so it gets the next puzzle generated
+            this.executor.execute {
+                val generated = this.poll(pool) ?: KenKenGame(size)
+                this.deliver.execute {
+                    generated.timer.reset(0)
+                    callback(generated)
+                }
+            }
+        }
+
+        this.prefill(size)
+    }
+
+    companion object {
+        const val defaultCapacity = 3
+
+        private const val legacyHardSuffix = "-Hard"
+    }
+}
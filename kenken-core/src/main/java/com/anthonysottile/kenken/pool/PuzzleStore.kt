@@ -0,0 +1,21 @@
+package com.anthonysottile.kenken.pool
+
+/**
+ * Persists the serialized puzzles of a [PuzzlePool] across process restarts.
+ */
+interface PuzzleStore {
+
+    /**
+     * @param key The pool the puzzles belong to.
+     * @return The puzzles saved for the pool, oldest first.
+     */
+    fun load(key: String): List<String>
+
+    /**
+     * Replaces the puzzles saved for a pool.
+     *
+     * @param key     The pool the puzzles belong to.
+     * @param puzzles The puzzles, oldest first.
+     */
+    fun save(key: String, puzzles: List<String>)
+}
@@ -0,0 +1,62 @@
+package com.anthonysottile.kenken.serialization
+
+import java.io.IOException
+import java.util.*
+import java.util.concurrent.Executor
+
+/**
+ * Hands what a [MoveLog] flushes to another sink on an executor, so the
+ *  thread playing the game only copies a few bytes and never waits on
+ *  storage.
+ *
+ * Writes run in the order they were flushed.  Once one fails, appends are
+ *  skipped until the log is replaced, since they would follow a gap, and the
+ *  next append fails so the log knows to replace what was saved.
+ *
+ * @param executor Runs the writes one at a time, in order.
+ * @param sink     Where the log is saved.
+ */
+class BackgroundSink(private val executor: Executor, private val sink: MoveLog.Sink) : MoveLog.Sink {
+
+    // Set when a write fails, until the next append reports it
+    @Volatile
+    private var failed = false
+
+    // Whether the saved log has a gap, only used by the executor
+    private var broken = false
+
+    override fun append(bytes: ByteArray, offset: Int, length: Int) {
+        if (this.failed) {
+            this.failed = false
+            throw IOException("Could not save the move log")
+        }
+
+        val copy = Arrays.copyOfRange(bytes, offset, offset + length)
+        this.executor.execute {
+            if (!this.broken) {
+                try {
+                    this.sink.append(copy, 0, copy.size)
+                } catch (e: IOException) {
+                    this.fail()
+                }
+            }
+        }
+    }
+
+    override fun replace(bytes: ByteArray, offset: Int, length: Int) {
+        val copy = Arrays.copyOfRange(bytes, offset, offset + length)
+        this.executor.execute {
+            try {
+                this.sink.replace(copy, 0, copy.size)
+                this.broken = false
+            } catch (e: IOException) {
+                this.fail()
+            }
+        }
+    }
+
+    private fun fail() {
+        this.broken = true
+        this.failed = true
+    }
+}
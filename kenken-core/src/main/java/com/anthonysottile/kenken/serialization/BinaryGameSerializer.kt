@@ -0,0 +1,279 @@
+package com.anthonysottile.kenken.serialization
+
+import com.anthonysottile.kenken.*
+import com.anthonysottile.kenken.cages.BaseCage
+import com.anthonysottile.kenken.cages.ICage
+import java.util.*
+
+/**
+ * Serializes games into a compact, versioned bit stream, a few hundred bytes
+ *  for a 9x9 game.
+ *
+ * Values are packed with just enough bits for the order, the solution storing
+ *  value - 1 so orders up to 16 take a nibble a square.  Cages are the run of
+ *  cell indices (x * order + y) they cover, their outlines being built from
+ *  the squares, and candidates are the bitmask the board already keeps.
+ *  Games generated from a seed keep it.  Games saved by [JsonGameSerializer]
+ *  stay readable through that serializer.
+ */
+object BinaryGameSerializer : GameSerializer<ByteArray> {
+
+    /**
+     * The format written by [serialize].  Older versions are still read.
+     */
+    const val version = 3
+
+    private const val magic = 0x4B
+
+    // Enough for any sign, and for the order and cage sizes the engine supports
+    private const val signBits = 3
+    private const val maxOrder = 31
+
+    override fun serialize(game: KenKenGame): ByteArray {
+        val order = game.latinSquare.order
+        val valueBits = BinaryGameSerializer.bitsFor(order)
+        val cellBits = BinaryGameSerializer.bitsFor(order * order - 1)
+
+        val out = BitWriter()
+        out.write(BinaryGameSerializer.magic, 8)
+        out.write(BinaryGameSerializer.version, 8)
+        out.writeLong(game.timer.elapsed)
+        out.write(order, 8)
+
+        val seed = game.seed
+        if (seed == null) {
+            out.write(0, 1)
+        } else {
+            out.write(1, 1)
+            out.writeLong(seed)
+        }
+
+        for (row in game.latinSquare.values) {
+            for (value in row) {
+                out.write(value - 1, valueBits)
+            }
+        }
+
+        out.writeVarInt(game.cages.size)
+        for (cage in game.cages) {
+            out.write(cage.signNumber.sign.intValue, BinaryGameSerializer.signBits)
+            out.writeVarInt(cage.signNumber.number)
+
+            out.writeVarInt(cage.squares.size)
+            for (p in cage.squares) {
+                out.write(p.x * order + p.y, cellBits)
+            }
+            out.write(cage.signLocation.x * order + cage.signLocation.y, cellBits)
+        }
+
+        val board = game.board
+        for (square in 0 until board.squareCount) {
+            out.write(board.getValue(square), valueBits)
+
+            val candidates = board.getCandidates(square)
+            if (candidates == 0) {
+                out.write(0, 1)
+            } else {
+                out.write(1, 1)
+                out.write(candidates, order)
+            }
+        }
+
+        return out.toByteArray()
+    }
+
+    override fun deserialize(data: ByteArray): KenKenGame {
+        val input = BitReader(data)
+        if (input.read(8) != BinaryGameSerializer.magic) {
+            throw IllegalArgumentException("Not a saved game")
+        }
+
+        val version = input.read(8)
+        if (version < 1 || version > BinaryGameSerializer.version) {
+            throw IllegalArgumentException("Unknown saved game version $version")
+        }
+
+        return BinaryGameSerializer.readGame(input, version)
+    }
+
+    private fun readGame(input: BitReader, version: Int): KenKenGame {
+        val elapsed = input.readLong()
+        val order = input.read(8)
+        if (order < 1 || order > BinaryGameSerializer.maxOrder) {
+            throw IllegalArgumentException("Saved game has an order of $order")
+        }
+
+        // Version 3 added the seed
+        val seed = if (version >= 3 && input.read(1) == 1) input.readLong() else null
+
+        val valueBits = BinaryGameSerializer.bitsFor(order)
+        val cellBits = BinaryGameSerializer.bitsFor(order * order - 1)
+
+        val values = Array(order) { IntArray(order) }
+        for (row in values) {
+            for (j in row.indices) {
+                row[j] = input.read(valueBits) + 1
+            }
+        }
+
+        val cageCount = input.readVarInt()
+        val cages = ArrayList<ICage>(cageCount)
+        for (c in 0 until cageCount) {
+            val sign = input.read(BinaryGameSerializer.signBits)
+            if (sign > Sign.None.intValue) {
+                throw IllegalArgumentException("Saved game has an unknown sign $sign")
+            }
+            val signNumber = SignNumber(Sign.toSign(sign), input.readVarInt())
+
+            val squareCount = input.readVarInt()
+            val squares = ArrayList<Point>(squareCount)
+            for (i in 0 until squareCount) {
+                squares.add(BinaryGameSerializer.readCell(input, cellBits, order))
+            }
+            val signLocation = BinaryGameSerializer.readCell(input, cellBits, order)
+
+            // Version 1 stored the outline, which is now built from the squares
+            if (version == 1) {
+                val lineCount = input.readVarInt()
+                for (i in 0 until lineCount) {
+                    input.read(3 * valueBits + 1)
+                }
+            }
+
+            cages.add(BaseCage.ToCage(signNumber, squares, signLocation))
+        }
+
+        val game = KenKenGame(LatinSquare(values), cages, elapsed, seed)
+
+        val board = game.board
+        for (square in 0 until board.squareCount) {
+            val value = input.read(valueBits)
+            if (value > order) {
+                throw IllegalArgumentException("Saved game has a value of $value")
+            }
+            board.setValue(square, value)
+
+            if (input.read(1) == 1) {
+                board.setCandidates(square, input.read(order))
+            }
+        }
+
+        return game
+    }
+
+    private fun readCell(input: BitReader, cellBits: Int, order: Int): Point {
+        val cell = input.read(cellBits)
+        if (cell >= order * order) {
+            throw IllegalArgumentException("Saved game has a square off the board")
+        }
+        return Point(cell / order, cell % order)
+    }
+
+    /**
+     * Returns the number of bits needed to hold values from 0 to max.
+     */
+    private fun bitsFor(max: Int): Int {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(max))
+    }
+
+    private fun mask(width: Int): Long {
+        return (1L shl width) - 1
+    }
+
+    /**
+     * Packs values of up to 32 bits each, most significant bit first.
+     */
+    private class BitWriter {
+        private var bytes = ByteArray(256)
+        private var size = 0
+
+        // The bits written but not yet making up a whole byte
+        private var buffer = 0L
+        private var bits = 0
+
+        fun write(value: Int, width: Int) {
+            this.buffer = (this.buffer shl width) or (value.toLong() and BinaryGameSerializer.mask(width))
+            this.bits += width
+            while (this.bits >= 8) {
+                this.bits -= 8
+                this.append((this.buffer ushr this.bits).toInt())
+            }
+            this.buffer = this.buffer and BinaryGameSerializer.mask(this.bits)
+        }
+
+        fun writeLong(value: Long) {
+            this.write((value ushr 32).toInt(), 32)
+            this.write(value.toInt(), 32)
+        }
+
+        /**
+         * Writes a non-negative number in seven bit groups, low group first,
+         *  so small numbers take a single byte.
+         */
+        fun writeVarInt(value: Int) {
+            var remaining = value
+            while (remaining ushr 7 != 0) {
+                this.write((remaining and 0x7F) or 0x80, 8)
+                remaining = remaining ushr 7
+            }
+            this.write(remaining, 8)
+        }
+
+        private fun append(byte: Int) {
+            if (this.size == this.bytes.size) {
+                this.bytes = Arrays.copyOf(this.bytes, 2 * this.size)
+            }
+            this.bytes[this.size++] = byte.toByte()
+        }
+
+        fun toByteArray(): ByteArray {
+            if (this.bits > 0) {
+                this.write(0, 8 - this.bits)
+            }
+            return Arrays.copyOf(this.bytes, this.size)
+        }
+    }
+
+    private class BitReader(private val bytes: ByteArray) {
+        private var position = 0
+        private var buffer = 0L
+        private var bits = 0
+
+        fun read(width: Int): Int {
+            while (this.bits < width) {
+                if (this.position == this.bytes.size) {
+                    throw IllegalArgumentException("Saved game is truncated")
+                }
+                this.buffer = (this.buffer shl 8) or (this.bytes[this.position++].toLong() and 0xFF)
+                this.bits += 8
+            }
+
+            this.bits -= width
+            val value = (this.buffer ushr this.bits) and BinaryGameSerializer.mask(width)
+            this.buffer = this.buffer and BinaryGameSerializer.mask(this.bits)
+            return value.toInt()
+        }
+
+        fun readLong(): Long {
+            val high = this.read(32).toLong()
+            return (high shl 32) or (this.read(32).toLong() and 0xFFFFFFFFL)
+        }
+
+        fun readVarInt(): Int {
+            var value = 0
+            var shift = 0
+            while (true) {
+                val group = this.read(8)
+                value = value or ((group and 0x7F) shl shift)
+                if (group and 0x80 == 0) {
+                    return value
+                }
+
+                shift += 7
+                if (shift > 28) {
+                    throw IllegalArgumentException("Saved game has a number out of range")
+                }
+            }
+        }
+    }
+}
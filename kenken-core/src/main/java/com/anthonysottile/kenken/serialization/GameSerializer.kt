@@ -0,0 +1,29 @@
+package com.anthonysottile.kenken.serialization
+
+import com.anthonysottile.kenken.KenKenGame
+
+/**
+ * Converts games to and from a persisted representation.  The engine does not
+ * depend on any particular format; the host picks the serializer that suits
+ * where the game is being stored.
+ *
+ * @param T The persisted representation of a game.
+ */
+interface GameSerializer<T> {
+
+    /**
+     * Saves the game, including its elapsed time and the user's progress.
+     *
+     * @param game The game to save.
+     * @return The persisted representation of the game.
+     */
+    fun serialize(game: KenKenGame): T
+
+    /**
+     * Restores a game saved by [serialize].
+     *
+     * @param data The persisted representation of the game.
+     * @return The restored game.
+     */
+    fun deserialize(data: T): KenKenGame
+}
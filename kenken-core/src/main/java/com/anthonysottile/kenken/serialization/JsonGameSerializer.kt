@@ -0,0 +1,202 @@
+package com.anthonysottile.kenken.serialization
+
+import com.anthonysottile.kenken.*
+import com.anthonysottile.kenken.cages.BaseCage
+import com.anthonysottile.kenken.cages.ICage
+import org.json.JSONArray
+import org.json.JSONObject
+import java.util.*
+
+/**
+ * Serializes games as org.json trees.  org.json ships with Android, so the
+ * engine only needs it at compile time; other hosts provide it themselves.
+ *
+ * Cage outlines are built from the squares, so the RenderLines older saves
+ * carry are ignored.
+ */
+object JsonGameSerializer : GameSerializer<JSONObject> {
+    private const val gameTimeElapsedProperty = "GameTimeElapsed"
+    private const val latinSquareProperty = "LatinSquare"
+    private const val cagesProperty = "Cages"
+    private const val userSquaresProperty = "UserSquares"
+
+    private const val orderProperty = "Order"
+    private const val valuesProperty = "Values"
+
+    private const val signNumberProperty = "SignNumber"
+    private const val squaresProperty = "Squares"
+    private const val signLocationProperty = "SignLocation"
+
+    private const val signProperty = "Sign"
+    private const val numberProperty = "Number"
+
+    private const val xProperty = "X"
+    private const val yProperty = "Y"
+
+    private const val valueProperty = "Value"
+    private const val candidatesProperty = "CandidatesV2"
+
+    override fun serialize(game: KenKenGame): JSONObject {
+        val json = JSONObject()
+
+        val timeElapsed = game.timer.elapsed
+
+        val cagesJson = JSONArray()
+        game.cages.forEach { cagesJson.put(this.cageToJson(it)) }
+
+        val userSquaresJson = JSONArray()
+        for (row in game.userSquares) {
+            val innerArray = JSONArray()
+            for (square in row) {
+                innerArray.put(this.userSquareToJson(square))
+            }
+            userSquaresJson.put(innerArray)
+        }
+
+        json.put(this.gameTimeElapsedProperty, timeElapsed)
+        json.put(this.latinSquareProperty, this.latinSquareToJson(game.latinSquare))
+        json.put(this.cagesProperty, cagesJson)
+        json.put(this.userSquaresProperty, userSquaresJson)
+
+        return json
+    }
+
+    override fun deserialize(data: JSONObject): KenKenGame {
+        val elapsed = data.getLong(this.gameTimeElapsedProperty)
+        val latinSquare = this.toLatinSquare(data.getJSONObject(this.latinSquareProperty))
+
+        val cagesJson = data.getJSONArray(this.cagesProperty)
+        val cages = ArrayList<ICage>(cagesJson.length())
+        for (i in 0 until cagesJson.length()) {
+            cages.add(this.toCage(cagesJson.getJSONObject(i)))
+        }
+
+        val game = KenKenGame(latinSquare, cages, elapsed)
+
+        val userSquaresJson = data.getJSONArray(this.userSquaresProperty)
+        for ((i, row) in game.userSquares.withIndex()) {
+            val inner = userSquaresJson.getJSONArray(i)
+            for ((j, square) in row.withIndex()) {
+                this.readUserSquare(inner.getJSONObject(j), square)
+            }
+        }
+
+        return game
+    }
+
+    fun latinSquareToJson(latinSquare: LatinSquare): JSONObject {
+        val json = JSONObject()
+
+        json.put(this.orderProperty, latinSquare.order)
+
+        val outerArray = JSONArray()
+        for (row in latinSquare.values) {
+            val innerArray = JSONArray()
+            for (x in row) {
+                innerArray.put(x)
+            }
+            outerArray.put(innerArray)
+        }
+
+        json.put(this.valuesProperty, outerArray)
+
+        return json
+    }
+
+    fun toLatinSquare(json: JSONObject): LatinSquare {
+        val order = json.getInt(this.orderProperty)
+
+        val outerArray = json.getJSONArray(this.valuesProperty)
+
+        val values = Array(order) { IntArray(order) }
+        for (i in values.indices) {
+            val innerArray = outerArray.getJSONArray(i)
+            for (j in values[i].indices) {
+                values[i][j] = innerArray.getInt(j)
+            }
+        }
+
+        return LatinSquare(values)
+    }
+
+    fun cageToJson(cage: ICage): JSONObject {
+        val json = JSONObject()
+
+        val squaresJson = JSONArray()
+        cage.squares.forEach { squaresJson.put(this.pointToJson(it)) }
+
+        json.put(this.signNumberProperty, this.signNumberToJson(cage.signNumber))
+        json.put(this.squaresProperty, squaresJson)
+        json.put(this.signLocationProperty, this.pointToJson(cage.signLocation))
+
+        return json
+    }
+
+    fun toCage(json: JSONObject): ICage {
+        val squaresJson = json.getJSONArray(this.squaresProperty)
+        val squares = ArrayList<Point>(squaresJson.length())
+        for (i in 0 until squaresJson.length()) {
+            squares.add(this.toPoint(squaresJson.getJSONObject(i)))
+        }
+
+        return BaseCage.ToCage(
+                this.toSignNumber(json.getJSONObject(this.signNumberProperty)),
+                squares,
+                this.toPoint(json.getJSONObject(this.signLocationProperty))
+        )
+    }
+
+    fun signNumberToJson(signNumber: SignNumber): JSONObject {
+        val json = JSONObject()
+        json.put(this.signProperty, signNumber.sign.intValue)
+        json.put(this.numberProperty, signNumber.number)
+        return json
+    }
+
+    fun toSignNumber(json: JSONObject): SignNumber {
+        return SignNumber(
+                Sign.toSign(json.getInt(this.signProperty)),
+                json.getInt(this.numberProperty)
+        )
+    }
+
+    fun pointToJson(p: Point): JSONObject {
+        val json = JSONObject()
+
+        json.put(this.xProperty, p.x)
+        json.put(this.yProperty, p.y)
+
+        return json
+    }
+
+    fun toPoint(json: JSONObject): Point {
+        return Point(
+                json.getInt(this.xProperty),
+                json.getInt(this.yProperty)
+        )
+    }
+
+    fun userSquareToJson(square: UserSquare): JSONObject {
+        val json = JSONObject()
+
+        val candidatesJson = JSONArray()
+        var candidates = square.candidateMask
+        while (candidates != 0) {
+            candidatesJson.put(Integer.numberOfTrailingZeros(candidates) + 1)
+            candidates = candidates and (candidates - 1)
+        }
+
+        json.put(this.valueProperty, square.value)
+        json.put(this.candidatesProperty, candidatesJson)
+        return json
+    }
+
+    fun readUserSquare(json: JSONObject, square: UserSquare) {
+        square.value = json.getInt(this.valueProperty)
+
+        val candidatesJson = json.getJSONArray(this.candidatesProperty)
+        for (i in 0 until candidatesJson.length()) {
+            square.addCandidate(candidatesJson.getInt(i))
+        }
+    }
+}
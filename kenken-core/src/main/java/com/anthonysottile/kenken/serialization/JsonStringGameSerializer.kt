@@ -0,0 +1,18 @@
+package com.anthonysottile.kenken.serialization
+
+import com.anthonysottile.kenken.KenKenGame
+import org.json.JSONObject
+
+/**
+ * [JsonGameSerializer] for stores which only hold strings.
+ */
+object JsonStringGameSerializer : GameSerializer<String> {
+
+    override fun serialize(game: KenKenGame): String {
+        return JsonGameSerializer.serialize(game).toString()
+    }
+
+    override fun deserialize(data: String): KenKenGame {
+        return JsonGameSerializer.deserialize(JSONObject(data))
+    }
+}
@@ -0,0 +1,367 @@
+package com.anthonysottile.kenken.serialization
+
+import com.anthonysottile.kenken.KenKenGame
+import java.io.IOException
+import java.util.*
+
+/**
+ * Saves a game as its puzzle followed by an append-only log of what the
+ *  player did, so saving after a move writes a few bytes instead of the whole
+ *  game.  Restoring reads the puzzle back and replays the log, so it does not
+ *  depend on the generator giving the same puzzle for a seed in every version.
+ *
+ * Every [checkpointInterval] moves the log writes a checkpoint holding the
+ *  whole board and starts over from it, so neither the log nor its replay
+ *  grows with the length of the game.  The host then has to replace what it
+ *  saved rather than append to it, see [flush].
+ *
+ * The log is a header followed by records, each a tag byte and varints:
+ *  - header: magic, [version], the checkpoint interval and the puzzle as
+ *    saved by [BinaryGameSerializer] with an empty board, a few hundred bytes
+ *    which also keep the seed of a seeded game
+ *  - value: square and value
+ *  - candidates: square and the square's new candidates, which records both
+ *    adding and removing one
+ *  - penalty: milliseconds added to the time
+ *  - pause: the time played when the game was paused
+ *  - checkpoint: the time played, the value of every square and the squares
+ *    with candidates
+ *
+ * The time played is that of the last pause or checkpoint plus the penalties
+ *  since, so hosts record a pause whenever they may be stopped.
+ */
+class MoveLog private constructor(
+        val game: KenKenGame,
+        private val checkpointInterval: Int,
+        private val puzzle: ByteArray,
+        private var bytes: ByteArray,
+        private var size: Int,
+        private var movesSinceCheckpoint: Int
+) {
+
+    /**
+     * Where the host keeps the log.
+     */
+    interface Sink {
+
+        /**
+         * Adds the bytes to the end of the saved log.
+         */
+        @Throws(IOException::class)
+        fun append(bytes: ByteArray, offset: Int, length: Int)
+
+        /**
+         * Replaces the whole saved log with the bytes.
+         */
+        @Throws(IOException::class)
+        fun replace(bytes: ByteArray, offset: Int, length: Int)
+    }
+
+    // The candidates last logged for every square, since the board reports
+    //  changes without saying what changed
+    private val candidates = IntArray(this.game.board.squareCount)
+
+    // The bytes the sink already holds, and whether it holds an older log
+    //  which has to be replaced
+    private var flushed = 0
+    private var mustReplace = true
+
+    /**
+     * Starts logging a game, from a checkpoint of what was already played.
+     *
+     * @param game               The game to log.
+     * @param checkpointInterval The moves between checkpoints.
+     */
+    @JvmOverloads
+    constructor(game: KenKenGame, checkpointInterval: Int = MoveLog.defaultCheckpointInterval) : this(
+            game,
+            checkpointInterval,
+            MoveLog.savePuzzle(game),
+            ByteArray(64),
+            0,
+            0
+    ) {
+        if (checkpointInterval < 1) {
+            throw IllegalArgumentException("Checkpoints must be at least one move apart")
+        }
+
+        this.writeHeader()
+        this.writeCheckpoint()
+    }
+
+    init {
+        val board = this.game.board
+        for (square in 0 until board.squareCount) {
+            this.candidates[square] = board.getCandidates(square)
+        }
+
+        board.addValueSetListener { square ->
+            this.writeMove(MoveLog.valueTag, square, board.getValue(square))
+        }
+        board.addChangedListener { square ->
+            val mask = board.getCandidates(square)
+            if (mask != this.candidates[square]) {
+                this.candidates[square] = mask
+                this.writeMove(MoveLog.candidatesTag, square, mask)
+            }
+        }
+    }
+
+    /**
+     * Records time added to the game as a penalty.
+     */
+    fun penalized(milliseconds: Long) {
+        this.writeByte(MoveLog.penaltyTag)
+        this.writeVarLong(milliseconds)
+    }
+
+    /**
+     * Records the time played when the game was paused.
+     */
+    fun paused() {
+        this.writeByte(MoveLog.pauseTag)
+        this.writeVarLong(this.game.timer.elapsed)
+    }
+
+    /**
+     * Hands the sink what it is missing: the records since the last flush,
+     *  or the whole log after a checkpoint started it over.  If the sink
+     *  fails the next flush replaces the whole log.
+     */
+    @Throws(IOException::class)
+    fun flush(sink: Sink) {
+        try {
+            if (this.mustReplace) {
+                sink.replace(this.bytes, 0, this.size)
+            } else if (this.flushed < this.size) {
+                sink.append(this.bytes, this.flushed, this.size - this.flushed)
+            }
+        } catch (e: IOException) {
+            this.mustReplace = true
+            throw e
+        }
+
+        this.mustReplace = false
+        this.flushed = this.size
+    }
+
+    /**
+     * Returns the whole log as the sink would hold it after a flush.
+     */
+    fun toByteArray(): ByteArray {
+        return Arrays.copyOf(this.bytes, this.size)
+    }
+
+    private fun writeMove(tag: Int, square: Int, value: Int) {
+        this.writeByte(tag)
+        this.writeVarLong(square.toLong())
+        this.writeVarLong(value.toLong())
+
+        this.movesSinceCheckpoint += 1
+        if (this.movesSinceCheckpoint >= this.checkpointInterval) {
+            this.size = 0
+            this.writeHeader()
+            this.writeCheckpoint()
+            this.mustReplace = true
+        }
+    }
+
+    private fun writeHeader() {
+        this.writeByte(MoveLog.magic)
+        this.writeByte(MoveLog.version)
+        this.writeVarLong(this.checkpointInterval.toLong())
+        this.writeVarLong(this.puzzle.size.toLong())
+        for (b in this.puzzle) {
+            this.writeByte(b.toInt())
+        }
+    }
+
+    private fun writeCheckpoint() {
+        val board = this.game.board
+
+        this.writeByte(MoveLog.checkpointTag)
+        this.writeVarLong(this.game.timer.elapsed)
+
+        var withCandidates = 0
+        for (square in 0 until board.squareCount) {
+            this.writeByte(board.getValue(square))
+            if (board.getCandidates(square) != 0) {
+                withCandidates += 1
+            }
+        }
+
+        this.writeVarLong(withCandidates.toLong())
+        for (square in 0 until board.squareCount) {
+            val mask = board.getCandidates(square)
+            if (mask != 0) {
+                this.writeVarLong(square.toLong())
+                this.writeVarLong(mask.toLong())
+            }
+        }
+
+        this.movesSinceCheckpoint = 0
+    }
+
+    private fun writeByte(value: Int) {
+        if (this.size == this.bytes.size) {
+            this.bytes = Arrays.copyOf(this.bytes, 2 * this.size)
+        }
+        this.bytes[this.size++] = value.toByte()
+    }
+
+    /**
+     * Writes a non-negative number in seven bit groups, low group first.
+     */
+    private fun writeVarLong(value: Long) {
+        var remaining = value
+        while (remaining ushr 7 != 0L) {
+            this.writeByte(((remaining and 0x7F) or 0x80).toInt())
+            remaining = remaining ushr 7
+        }
+        this.writeByte(remaining.toInt())
+    }
+
+    private class Reader(private val bytes: ByteArray) {
+        var position = 0
+
+        val hasMore: Boolean
+            get() = this.position < this.bytes.size
+
+        fun readByte(): Int {
+            if (this.position == this.bytes.size) {
+                throw IllegalArgumentException("Move log is truncated")
+            }
+            return this.bytes[this.position++].toInt() and 0xFF
+        }
+
+        fun readVarLong(): Long {
+            var value = 0L
+            var shift = 0
+            while (true) {
+                val group = this.readByte()
+                value = value or ((group and 0x7F).toLong() shl shift)
+                if (group and 0x80 == 0) {
+                    return value
+                }
+
+                shift += 7
+                if (shift > 63) {
+                    throw IllegalArgumentException("Move log has a number out of range")
+                }
+            }
+        }
+
+        fun readBytes(length: Int): ByteArray {
+            if (length > this.bytes.size - this.position) {
+                throw IllegalArgumentException("Move log is truncated")
+            }
+            this.position += length
+            return Arrays.copyOfRange(this.bytes, this.position - length, this.position)
+        }
+
+        fun readInt(max: Int): Int {
+            val value = this.readVarLong()
+            if (value < 0 || value > max) {
+                throw IllegalArgumentException("Move log has a number out of range")
+            }
+            return value.toInt()
+        }
+    }
+
+    companion object {
+        /**
+         * The format written.
+         */
+        const val version = 2
+
+        const val defaultCheckpointInterval = 64
+
+        private const val magic = 0x4C
+
+        private const val valueTag = 0
+        private const val candidatesTag = 1
+        private const val penaltyTag = 2
+        private const val pauseTag = 3
+        private const val checkpointTag = 4
+
+        /**
+         * Restores a game from its log, reading the puzzle and replaying the
+         *  moves, and keeps logging it.
+         *
+         * @throws IllegalArgumentException If the log is damaged.
+         */
+        @JvmStatic
+        fun restore(data: ByteArray): MoveLog {
+            val input = Reader(data)
+            if (input.readByte() != MoveLog.magic) {
+                throw IllegalArgumentException("Not a move log")
+            }
+
+            val version = input.readByte()
+            if (version != MoveLog.version) {
+                throw IllegalArgumentException("Unknown move log version $version")
+            }
+
+            val checkpointInterval = input.readInt(Int.MAX_VALUE)
+            if (checkpointInterval < 1) {
+                throw IllegalArgumentException("Move log has a checkpoint interval of $checkpointInterval")
+            }
+            val puzzle = input.readBytes(input.readInt(Int.MAX_VALUE))
+            val game = BinaryGameSerializer.deserialize(puzzle)
+            val order = game.latinSquare.order
+
+            val board = game.board
+            val squareMax = board.squareCount - 1
+            val maskMax = (1 shl order) - 1
+            var elapsed = 0L
+            var moves = 0
+            while (input.hasMore) {
+                val tag = input.readByte()
+                when (tag) {
+                    MoveLog.valueTag -> {
+                        board.setValue(input.readInt(squareMax), input.readInt(order))
+                        moves += 1
+                    }
+                    MoveLog.candidatesTag -> {
+                        board.setCandidates(input.readInt(squareMax), input.readInt(maskMax))
+                        moves += 1
+                    }
+                    MoveLog.penaltyTag -> elapsed += input.readVarLong()
+                    MoveLog.pauseTag -> elapsed = input.readVarLong()
+                    MoveLog.checkpointTag -> {
+                        elapsed = input.readVarLong()
+                        for (square in 0..squareMax) {
+                            val value = input.readByte()
+                            if (value > order) {
+                                throw IllegalArgumentException("Move log has a value of $value")
+                            }
+                            board.setValue(square, value)
+                            board.setCandidates(square, 0)
+                        }
+                        val withCandidates = input.readInt(board.squareCount)
+                        for (i in 0 until withCandidates) {
+                            board.setCandidates(input.readInt(squareMax), input.readInt(maskMax))
+                        }
+                        moves = 0
+                    }
+                    else -> throw IllegalArgumentException("Move log has an unknown record $tag")
+                }
+            }
+
+            game.timer.reset(elapsed)
+
+            val log = MoveLog(game, checkpointInterval, puzzle, Arrays.copyOf(data, Math.max(64, data.size)), data.size, moves)
+            log.flushed = data.size
+            log.mustReplace = false
+            return log
+        }
+
+        /**
+         * Saves the game's solution, cages and seed, leaving out the board
+         *  and time which every checkpoint holds.
+         */
+        private fun savePuzzle(game: KenKenGame): ByteArray {
+            return BinaryGameSerializer.serialize(KenKenGame(game.latinSquare, game.cages, 0, game.seed))
+        }
+    }
+}
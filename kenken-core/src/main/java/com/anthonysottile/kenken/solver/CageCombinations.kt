@@ -0,0 +1,206 @@
+package com.anthonysottile.kenken.solver
+
+import com.anthonysottile.kenken.Point
+import com.anthonysottile.kenken.Sign
+import java.util.*
+
+/**
+ * Enumerates the value assignments satisfying a cage once and serves them
+ *  from a bounded least recently used cache shared by validation, auto fill
+ *  and the solver.
+ *
+ * A cage's table depends on its sign and number, its size, the order of the
+ *  puzzle and its layout: which squares of the cage share a row or column and
+ *  so must hold different values.  The layout packs, for every square after
+ *  the first, one bit per earlier square it shares a line with.
+ */
+object CageCombinations {
+
+    /**
+     * Bits used for each value of a packed assignment, enough for orders up
+     *  to 31.  Cages of up to six squares fit in an int.
+     */
+    const val bitsPerValue = 5
+    const val valueMask = (1 shl CageCombinations.bitsPerValue) - 1
+
+    /**
+     * The ints kept across all cached tables, packed assignments and their
+     *  index by square and value, see [CombinationTable.footprint].
+     */
+    const val capacity = 1 shl 20
+
+    private data class Key(
+            val sign: Sign,
+            val number: Int,
+            val size: Int,
+            val order: Int,
+            val layout: Int
+    )
+
+    private val tables = LinkedHashMap<Key, CombinationTable>(64, 0.75f, true)
+    private var cachedInts = 0
+
+    /**
+     * Packs the values of a cage's squares, in the order of its squares.
+     */
+    @JvmStatic
+    fun pack(values: IntArray): Int {
+        var tuple = 0
+        for (value in values) {
+            tuple = (tuple shl CageCombinations.bitsPerValue) or value
+        }
+        return tuple
+    }
+
+    /**
+     * Returns the layout of a cage from its squares.
+     */
+    @JvmStatic
+    fun layout(squares: List<Point>): Int {
+        var layout = 0
+        for (i in 1 until squares.size) {
+            for (j in 0 until i) {
+                if (squares[i].x == squares[j].x || squares[i].y == squares[j].y) {
+                    layout = layout or (1 shl (CageCombinations.layoutOffset(i) + j))
+                }
+            }
+        }
+        return layout
+    }
+
+    private fun layoutOffset(square: Int): Int {
+        return square * (square - 1) / 2
+    }
+
+    /**
+     * Returns the earlier squares the square shares a line with, one bit per
+     *  square.
+     */
+    private fun conflicts(layout: Int, square: Int): Int {
+        return (layout ushr CageCombinations.layoutOffset(square)) and ((1 shl square) - 1)
+    }
+
+    /**
+     * Returns the table for a cage, enumerating it if it is not cached.
+     */
+    @JvmStatic
+    fun get(sign: Sign, number: Int, size: Int, order: Int, layout: Int): CombinationTable {
+        val key = Key(sign, number, size, order, layout)
+        synchronized(this.tables) {
+            val cached = this.tables[key]
+            if (cached != null) {
+                return cached
+            }
+        }
+
+        // Enumerate outside the lock, two threads building the same table
+        //  just do the work twice.
+        val table = CageCombinations.enumerate(key)
+
+        synchronized(this.tables) {
+            if (this.tables.put(key, table) == null) {
+                this.cachedInts += table.footprint
+            }
+
+            val iterator = this.tables.values.iterator()
+            while (this.cachedInts > CageCombinations.capacity && this.tables.size > 1) {
+                this.cachedInts -= iterator.next().footprint
+                iterator.remove()
+            }
+        }
+
+        return table
+    }
+
+    private class Enumeration(val key: Key) {
+        val chosen = IntArray(this.key.size)
+        var tuples = IntArray(16)
+        var count = 0
+
+        fun add(tuple: Int) {
+            if (this.count == this.tuples.size) {
+                this.tuples = Arrays.copyOf(this.tuples, 2 * this.count)
+            }
+            this.tuples[this.count++] = tuple
+        }
+    }
+
+    private fun enumerate(key: Key): CombinationTable {
+        val enumeration = Enumeration(key)
+        CageCombinations.enumerate(enumeration, 0, 0, 0, 1L)
+
+        // Values are tried in increasing order with the first square in the
+        //  highest bits, so the tuples already come out sorted.
+        return CombinationTable(key.size, Arrays.copyOf(enumeration.tuples, enumeration.count))
+    }
+
+    private fun enumerate(enumeration: Enumeration, position: Int, tuple: Int, sum: Int, product: Long) {
+        val key = enumeration.key
+
+        if (position == key.size) {
+            if (CageCombinations.satisfies(key, enumeration.chosen, sum, product)) {
+                enumeration.add(tuple)
+            }
+            return
+        }
+
+        var excluded = 0
+        var conflicts = CageCombinations.conflicts(key.layout, position)
+        while (conflicts != 0) {
+            val j = Integer.numberOfTrailingZeros(conflicts)
+            conflicts = conflicts and (conflicts - 1)
+            excluded = excluded or (1 shl enumeration.chosen[j])
+        }
+
+        val remaining = key.size - position - 1
+        for (value in 1..key.order) {
+            if (excluded and (1 shl value) != 0) {
+                continue
+            }
+
+            val nextSum = sum + value
+            val nextProduct = product * value
+            if (CageCombinations.canExtend(key, remaining, value, nextSum, nextProduct)) {
+                enumeration.chosen[position] = value
+                CageCombinations.enumerate(
+                        enumeration,
+                        position + 1,
+                        (tuple shl CageCombinations.bitsPerValue) or value,
+                        nextSum,
+                        nextProduct
+                )
+            }
+        }
+    }
+
+    /**
+     * Checks whether a partial assignment can still be completed.
+     */
+    private fun canExtend(key: Key, remaining: Int, value: Int, sum: Int, product: Long): Boolean {
+        val number = key.number
+        return when (key.sign) {
+            Sign.Add -> sum + remaining <= number && sum + remaining * key.order >= number
+            Sign.Multiply -> number % product == 0L
+            Sign.None -> value == number
+            Sign.Subtract, Sign.Divide -> true
+        }
+    }
+
+    private fun satisfies(key: Key, chosen: IntArray, sum: Int, product: Long): Boolean {
+        val number = key.number
+        return when (key.sign) {
+            Sign.Add -> sum == number
+            Sign.Multiply -> product == number.toLong()
+            Sign.None -> true
+            Sign.Subtract, Sign.Divide -> {
+                var max = chosen[0]
+                var min = chosen[0]
+                for (i in 1 until key.size) {
+                    max = Math.max(max, chosen[i])
+                    min = Math.min(min, chosen[i])
+                }
+                if (key.sign == Sign.Subtract) max - min == number else max == min * number
+            }
+        }
+    }
+}
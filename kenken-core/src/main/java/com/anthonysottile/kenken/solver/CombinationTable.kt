@@ -0,0 +1,74 @@
+package com.anthonysottile.kenken.solver
+
+import java.util.*
+
+/**
+ * Every assignment of values satisfying one cage, packed into ints with the
+ *  value of the first square in the highest bits.  Tuples are kept sorted so
+ *  that checking an assignment is a binary search.
+ *
+ * @param size   The number of squares in the cage.
+ * @param tuples The packed assignments, see [CageCombinations.pack].
+ */
+class CombinationTable(val size: Int, val tuples: IntArray) {
+
+    /**
+     * For each square of the cage, the values it takes in some assignment as
+     *  a bitmask with bit v - 1 set for value v.
+     */
+    val masks = IntArray(this.size)
+
+    /**
+     * The tuples giving each square each value, as indices into [tuples].
+     *  Those giving square i value v are supporting[supportStart[j] until
+     *  supportStart[j + 1]] where j = i * [CageCombinations.valueMask] + v - 1.
+     */
+    val supportStart = IntArray(this.size * CageCombinations.valueMask + 1)
+    val supporting = IntArray(this.size * this.tuples.size)
+
+    init {
+        for (tuple in this.tuples) {
+            for (i in 0 until this.size) {
+                val value = this.valueAt(tuple, i)
+                this.masks[i] = this.masks[i] or (1 shl (value - 1))
+                this.supportStart[i * CageCombinations.valueMask + value] += 1
+            }
+        }
+
+        // Counts to starts, then place the tuples in increasing order
+        for (j in 1 until this.supportStart.size) {
+            this.supportStart[j] += this.supportStart[j - 1]
+        }
+        val next = this.supportStart.copyOf()
+        for ((k, tuple) in this.tuples.withIndex()) {
+            for (i in 0 until this.size) {
+                val j = i * CageCombinations.valueMask + this.valueAt(tuple, i) - 1
+                this.supporting[next[j]++] = k
+            }
+        }
+    }
+
+    val count: Int
+        get() = this.tuples.size
+
+    /**
+     * The ints the table keeps, for bounding caches of tables.
+     */
+    val footprint: Int
+        get() = this.tuples.size + this.supporting.size + this.supportStart.size
+
+    /**
+     * Returns the value of a square in a packed assignment.
+     */
+    fun valueAt(tuple: Int, square: Int): Int {
+        val shift = (this.size - 1 - square) * CageCombinations.bitsPerValue
+        return (tuple ushr shift) and CageCombinations.valueMask
+    }
+
+    /**
+     * Returns whether the packed assignment satisfies the cage.
+     */
+    operator fun contains(tuple: Int): Boolean {
+        return Arrays.binarySearch(this.tuples, tuple) >= 0
+    }
+}
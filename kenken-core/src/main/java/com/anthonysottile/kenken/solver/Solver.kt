@@ -0,0 +1,445 @@
+package com.anthonysottile.kenken.solver
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.cages.ICage
+
+/**
+ * Constraint propagation solver for KenKen puzzles.
+ *
+ * Every square keeps its candidate values as an int bitmask, bit v - 1 being
+ *  set when v is still possible.  Propagation removes values of solved squares
+ *  from their row and column, places values that only fit one square of a row
+ *  or column and limits every cage's squares to the values that appear in some
+ *  assignment from the cage's [CombinationTable].  When propagation stalls the
+ *  solver branches on the square with the fewest candidates left.
+ *
+ * Squares are indexed x * order + y.  A solver keeps scratch state between
+ *  runs and must not be shared between threads.  The scratch state for the
+ *  squares is by far the largest, so a solver is kept for a puzzle whose
+ *  cages change, as the generator's do, and given the new cages with
+ *  [setCages].
+ *
+ * @param order The size of the puzzle.
+ */
+class Solver(private val order: Int) {
+    private val cellCount = this.order * this.order
+
+    private var cageCount = 0
+    private val cellCage = IntArray(this.cellCount)
+    private var cageStart = IntArray(1)
+    private var cageCells = IntArray(this.cellCount)
+    private var cageTables = arrayOfNulls<CombinationTable>(0)
+
+    // One domain array per search depth so that backtracking is free
+    private val domains = Array(this.cellCount + 1) { IntArray(this.cellCount) }
+
+    private val singleQueue = IntArray(this.cellCount)
+    private var singlesPending = 0
+    private val lineQueue = IntArray(2 * this.order)
+    private val lineQueued = BooleanArray(2 * this.order)
+    private var linesPending = 0
+    private var cageQueue = IntArray(0)
+    private var cageQueued = BooleanArray(0)
+    private var cagesPending = 0
+
+    // For every square of every cage and every value, the index of the last
+    //  tuple of the cage's table found supporting it, see pruneCage
+    private val residues = IntArray(this.cellCount * this.order)
+
+    private val solutions = ArrayList<Array<IntArray>>()
+    private var maxSolutions = 0
+    private var maxNodes = 0
+    private var nodes = 0
+    private var gaveUp = false
+
+    /**
+     * @param order The size of the puzzle.
+     * @param cages The cages of the puzzle.
+     */
+    constructor(order: Int, cages: List<ICage>) : this(order) {
+        this.setCages(cages)
+    }
+
+    constructor(game: KenKenGame) : this(game.latinSquare.order, game.cages)
+
+    /**
+     * Replaces the cages of the puzzle, reusing the scratch state.  The
+     *  cages must cover every square once.
+     */
+    fun setCages(cages: List<ICage>) {
+        this.cageCount = cages.size
+        if (this.cageStart.size < this.cageCount + 1) {
+            this.cageStart = IntArray(this.cageCount + 1)
+            this.cageTables = arrayOfNulls(this.cageCount)
+            this.cageQueue = IntArray(this.cageCount)
+            this.cageQueued = BooleanArray(this.cageCount)
+        }
+
+        var next = 0
+        for ((c, cage) in cages.withIndex()) {
+            this.cageTables[c] = cage.getCombinations(this.order)
+            this.cageStart[c] = next
+            for (square in cage.squares) {
+                this.cageCells[next] = square.x * this.order + square.y
+                this.cellCage[this.cageCells[next]] = c
+                next += 1
+            }
+        }
+        this.cageStart[this.cageCount] = next
+
+        java.util.Arrays.fill(this.residues, 0)
+    }
+
+    /**
+     * Solves the puzzle.
+     *
+     * @param maxSolutions The number of solutions after which the search stops.
+     *  The default of two is enough to tell whether the solution is unique.
+     * @param givens Values already known, indexed [x][y] with 0 for unknown, or
+     *  null to solve from scratch.
+     * @param maxNodes The number of search nodes after which the search gives
+     *  up, leaving the result incomplete.
+     * @return The solutions found.
+     */
+    @JvmOverloads
+    fun solve(
+            maxSolutions: Int = 2,
+            givens: Array<IntArray>? = null,
+            maxNodes: Int = Int.MAX_VALUE
+    ): SolverResult {
+        this.solutions.clear()
+        this.maxSolutions = maxSolutions
+        this.maxNodes = maxNodes
+        this.nodes = 0
+        this.gaveUp = false
+        this.clearQueues()
+
+        val full = (1 shl this.order) - 1
+        val root = this.domains[0]
+        java.util.Arrays.fill(root, full)
+
+        if (this.order == 1) {
+            this.singleQueue[this.singlesPending++] = 0
+        }
+
+        for (line in 0 until 2 * this.order) {
+            this.queueLine(line)
+        }
+        for (cage in 0 until this.cageCount) {
+            this.queueCage(cage)
+        }
+
+        var consistent = true
+        if (givens != null) {
+            for (x in 0 until this.order) {
+                for (y in 0 until this.order) {
+                    val value = givens[x][y]
+                    if (value != 0 && !this.restrict(root, x * this.order + y, 1 shl (value - 1))) {
+                        consistent = false
+                    }
+                }
+            }
+        }
+
+        if (consistent) {
+            this.search(0)
+        }
+
+        return SolverResult(ArrayList(this.solutions), this.nodes, !this.gaveUp)
+    }
+
+    /**
+     * Returns the candidates of a square once the constraints were propagated
+     *  and before the first branch of the last solve, bit v - 1 set for value
+     *  v.  The squares with several candidates left are where the search has
+     *  to branch.
+     */
+    fun getPropagatedCandidates(cell: Int): Int {
+        return this.domains[0][cell]
+    }
+
+    /**
+     * Searches below the given depth.
+     *
+     * @return True once enough solutions are found or the node budget is spent
+     *  and the search should stop.
+     */
+    private fun search(depth: Int): Boolean {
+        if (this.nodes >= this.maxNodes) {
+            this.gaveUp = true
+            this.clearQueues()
+            return true
+        }
+        this.nodes += 1
+
+        val domain = this.domains[depth]
+        if (!this.propagate(domain)) {
+            this.clearQueues()
+            return false
+        }
+
+        // Branch on the square with the fewest candidates
+        var best = -1
+        var bestCount = Int.MAX_VALUE
+        for (cell in 0 until this.cellCount) {
+            val count = Integer.bitCount(domain[cell])
+            if (count in 2..(bestCount - 1)) {
+                best = cell
+                bestCount = count
+                if (count == 2) {
+                    break
+                }
+            }
+        }
+
+        if (best < 0) {
+            this.solutions.add(Array(this.order) { x ->
+                IntArray(this.order) { y ->
+                    Integer.numberOfTrailingZeros(domain[x * this.order + y]) + 1
+                }
+            })
+            return this.solutions.size >= this.maxSolutions
+        }
+
+        val child = this.domains[depth + 1]
+        var remaining = domain[best]
+        while (remaining != 0) {
+            val bit = remaining and -remaining
+            remaining = remaining and (remaining - 1)
+
+            System.arraycopy(domain, 0, child, 0, this.cellCount)
+            this.restrict(child, best, bit)
+            if (this.search(depth + 1)) {
+                return true
+            }
+        }
+
+        return false
+    }
+
+    /**
+     * Runs the queued propagation to a fixed point.
+     *
+     * @return False if a square ran out of candidates.
+     */
+    private fun propagate(domain: IntArray): Boolean {
+        while (true) {
+            if (this.singlesPending > 0) {
+                val cell = this.singleQueue[--this.singlesPending]
+                if (!this.eliminatePeers(domain, cell)) {
+                    return false
+                }
+            } else if (this.linesPending > 0) {
+                val line = this.lineQueue[--this.linesPending]
+                this.lineQueued[line] = false
+                if (!this.placeHiddenSingles(domain, line)) {
+                    return false
+                }
+            } else if (this.cagesPending > 0) {
+                val cage = this.cageQueue[--this.cagesPending]
+                this.cageQueued[cage] = false
+                if (!this.pruneCage(domain, cage)) {
+                    return false
+                }
+            } else {
+                return true
+            }
+        }
+    }
+
+    /**
+     * Removes the value of a solved square from its row and column.
+     */
+    private fun eliminatePeers(domain: IntArray, cell: Int): Boolean {
+        val mask = domain[cell].inv()
+        val x = cell / this.order
+        val y = cell % this.order
+        for (k in 0 until this.order) {
+            if (k != y && !this.restrict(domain, x * this.order + k, mask)) {
+                return false
+            }
+            if (k != x && !this.restrict(domain, k * this.order + y, mask)) {
+                return false
+            }
+        }
+        return true
+    }
+
+    /**
+     * Places values which only fit in one square of a row or column.  Lines
+     *  0 until order hold a fixed x, the rest hold a fixed y.
+     */
+    private fun placeHiddenSingles(domain: IntArray, line: Int): Boolean {
+        val start: Int
+        val stride: Int
+        if (line < this.order) {
+            start = line * this.order
+            stride = 1
+        } else {
+            start = line - this.order
+            stride = this.order
+        }
+
+        var once = 0
+        var twice = 0
+        var cell = start
+        for (k in 0 until this.order) {
+            val d = domain[cell]
+            twice = twice or (once and d)
+            once = once or d
+            cell += stride
+        }
+
+        // Some value has nowhere to go
+        if (once != (1 shl this.order) - 1) {
+            return false
+        }
+
+        val unique = once and twice.inv()
+        if (unique != 0) {
+            cell = start
+            for (k in 0 until this.order) {
+                val placed = domain[cell] and unique
+                if (placed != 0) {
+                    // Two values which can only go here is a contradiction
+                    if (placed and (placed - 1) != 0 || !this.restrict(domain, cell, placed)) {
+                        return false
+                    }
+                }
+                cell += stride
+            }
+        }
+
+        return true
+    }
+
+    /**
+     * Limits the squares of a cage to the values which take part in at least
+     *  one assignment satisfying the cage.
+     *
+     * Every square and value remembers the last tuple found supporting it.
+     *  While that tuple still fits the domains, which it mostly does from one
+     *  search node to the next, the value is kept after checking a single
+     *  tuple.  Otherwise the tuples giving the square that value are searched
+     *  for a new support, and the one found is remembered for every square of
+     *  the cage.  Nothing is undone on backtracking, a stale support is only
+     *  a wasted check.
+     */
+    private fun pruneCage(domain: IntArray, cage: Int): Boolean {
+        val start = this.cageStart[cage]
+        val size = this.cageStart[cage + 1] - start
+        val table = this.cageTables[cage]!!
+        if (table.count == 0) {
+            return false
+        }
+
+        for (i in 0 until size) {
+            val cell = this.cageCells[start + i]
+            var supported = 0
+            var remaining = domain[cell]
+            while (remaining != 0) {
+                val bit = remaining and -remaining
+                remaining = remaining and (remaining - 1)
+
+                if (this.isSupported(domain, table, start, size, i, Integer.numberOfTrailingZeros(bit))) {
+                    supported = supported or bit
+                }
+            }
+
+            if (!this.restrict(domain, cell, supported)) {
+                return false
+            }
+        }
+        return true
+    }
+
+    /**
+     * Returns whether some tuple fitting the domains gives the i-th square of
+     *  the cage starting at start the value index + 1.
+     */
+    private fun isSupported(domain: IntArray, table: CombinationTable, start: Int, size: Int, i: Int, index: Int): Boolean {
+        // Supports start out as the first tuple, which may not give the value
+        val residue = table.tuples[this.residues[(start + i) * this.order + index]]
+        if (table.valueAt(residue, i) == index + 1 && this.fits(domain, residue, start, size)) {
+            return true
+        }
+
+        val j = i * CageCombinations.valueMask + index
+        for (k in table.supportStart[j] until table.supportStart[j + 1]) {
+            val tuple = table.tuples[table.supporting[k]]
+            if (this.fits(domain, tuple, start, size)) {
+                for (other in 0 until size) {
+                    this.residues[(start + other) * this.order + table.valueAt(tuple, other) - 1] = table.supporting[k]
+                }
+                return true
+            }
+        }
+        return false
+    }
+
+    /**
+     * Returns whether every value of the packed tuple is still a candidate of
+     *  its square.
+     */
+    private fun fits(domain: IntArray, tuple: Int, start: Int, size: Int): Boolean {
+        var shift = (size - 1) * CageCombinations.bitsPerValue
+        for (i in 0 until size) {
+            val value = (tuple ushr shift) and CageCombinations.valueMask
+            if (domain[this.cageCells[start + i]] and (1 shl (value - 1)) == 0) {
+                return false
+            }
+            shift -= CageCombinations.bitsPerValue
+        }
+        return true
+    }
+
+    /**
+     * Intersects the candidates of a square with the mask, queueing whatever
+     *  depends on the square if it changed.
+     *
+     * @return False if the square has no candidates left.
+     */
+    private fun restrict(domain: IntArray, cell: Int, mask: Int): Boolean {
+        val old = domain[cell]
+        val updated = old and mask
+        if (updated == old) {
+            return true
+        }
+        if (updated == 0) {
+            return false
+        }
+
+        domain[cell] = updated
+        if (updated and (updated - 1) == 0) {
+            this.singleQueue[this.singlesPending++] = cell
+        }
+        this.queueLine(cell / this.order)
+        this.queueLine(this.order + cell % this.order)
+        this.queueCage(this.cellCage[cell])
+        return true
+    }
+
+    private fun queueLine(line: Int) {
+        if (!this.lineQueued[line]) {
+            this.lineQueued[line] = true
+            this.lineQueue[this.linesPending++] = line
+        }
+    }
+
+    private fun queueCage(cage: Int) {
+        if (!this.cageQueued[cage]) {
+            this.cageQueued[cage] = true
+            this.cageQueue[this.cagesPending++] = cage
+        }
+    }
+
+    private fun clearQueues() {
+        this.singlesPending = 0
+        while (this.linesPending > 0) {
+            this.lineQueued[this.lineQueue[--this.linesPending]] = false
+        }
+        while (this.cagesPending > 0) {
+            this.cageQueued[this.cageQueue[--this.cagesPending]] = false
+        }
+    }
+}
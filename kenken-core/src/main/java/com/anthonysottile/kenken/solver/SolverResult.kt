@@ -0,0 +1,25 @@
+package com.anthonysottile.kenken.solver
+
+/**
+ * The outcome of a [Solver] run.
+ *
+ * @param solutions The solutions found, each indexed [x][y].  The search stops
+ *  once it has found as many solutions as it was asked for, so this is a lower
+ *  bound on the number of solutions the puzzle has.
+ * @param nodes The number of search nodes visited, a rough measure of how hard
+ *  the puzzle is for the solver.
+ * @param isComplete False if the search ran out of nodes before finding as
+ *  many solutions as asked for or ruling out any more.
+ */
+class SolverResult(
+        val solutions: List<Array<IntArray>>,
+        val nodes: Int,
+        val isComplete: Boolean = true
+) {
+
+    val isSolvable: Boolean
+        get() = this.solutions.isNotEmpty()
+
+    val isUnique: Boolean
+        get() = this.isComplete && this.solutions.size == 1
+}
@@ -0,0 +1,66 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.serialization.BinaryGameSerializer
+import junit.framework.TestCase
+
+class BinaryGameSerializerTests : TestCase() {
+
+    fun testRoundTrip() {
+        val order = 9
+        val game = KenKenGame(order)
+        game.userSquares[0][0].value = game.latinSquare.values[0][0]
+        game.userSquares[8][3].value = 7
+        game.userSquares[1][2].addCandidate(3)
+        game.userSquares[1][2].addCandidate(9)
+
+        val data = BinaryGameSerializer.serialize(game)
+        val restored = BinaryGameSerializer.deserialize(data)
+
+        assertEquals(order, restored.latinSquare.order)
+        assertEquals(game.seed, restored.seed)
+        for (i in 0 until order) {
+            for (j in 0 until order) {
+                assertEquals(game.latinSquare.values[i][j], restored.latinSquare.values[i][j])
+                assertEquals(game.userSquares[i][j].value, restored.userSquares[i][j].value)
+                assertEquals(game.userSquares[i][j].candidateMask, restored.userSquares[i][j].candidateMask)
+            }
+        }
+
+        assertEquals(game.cages.size, restored.cages.size)
+        for ((i, cage) in game.cages.withIndex()) {
+            val restoredCage = restored.cages[i]
+            assertEquals(cage.squares, restoredCage.squares)
+            assertEquals(cage.signLocation, restoredCage.signLocation)
+            assertEquals(cage.signNumber.toString(), restoredCage.signNumber.toString())
+            assertEquals(cage.renderLines.size, restoredCage.renderLines.size)
+            for ((j, line) in cage.renderLines.withIndex()) {
+                val restoredLine = restoredCage.renderLines[j]
+                assertEquals(line.position, restoredLine.position)
+                assertEquals(line.length, restoredLine.length)
+                assertEquals(line.horizontal, restoredLine.horizontal)
+            }
+        }
+
+        assertEquals(2, restored.squaresWithValues)
+    }
+
+    fun testRejectsBadData() {
+        val data = BinaryGameSerializer.serialize(KenKenGame(4))
+
+        val truncated = data.copyOf(data.size / 2)
+        try {
+            BinaryGameSerializer.deserialize(truncated)
+            fail()
+        } catch (e: IllegalArgumentException) {
+        }
+
+        val future = data.copyOf()
+        future[1] = (BinaryGameSerializer.version + 1).toByte()
+        try {
+            BinaryGameSerializer.deserialize(future)
+            fail()
+        } catch (e: IllegalArgumentException) {
+        }
+    }
+}
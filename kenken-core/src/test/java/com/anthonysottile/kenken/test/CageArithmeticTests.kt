@@ -0,0 +1,129 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.CageArithmetic
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.LatinSquare
+import com.anthonysottile.kenken.Point
+import com.anthonysottile.kenken.Sign
+import com.anthonysottile.kenken.SignNumber
+import com.anthonysottile.kenken.cages.BaseCage
+
+import junit.framework.TestCase
+
+class CageArithmeticTests : TestCase() {
+
+    private class Values(val sign: Sign, val number: Int, val order: Int, val size: Int, values: IntArray) {
+        val filled = values.size
+        val sum = values.sum()
+        val product = values.fold(1L) { p, v -> p * v }
+        val mask = values.fold(0) { m, v -> m or (1 shl (v - 1)) }
+
+        fun isSatisfied(): Boolean {
+            return CageArithmetic.isSatisfied(
+                    this.sign, this.number, this.filled, this.size, this.sum, this.product, this.mask)
+        }
+
+        fun canBeSatisfied(): Boolean {
+            return CageArithmetic.canBeSatisfied(
+                    this.sign, this.number, this.order, this.filled, this.size, this.sum, this.product, this.mask)
+        }
+    }
+
+    fun testIsSatisfied() {
+        assertTrue(Values(Sign.Add, 7, 6, 2, intArrayOf(3, 4)).isSatisfied())
+        assertFalse(Values(Sign.Add, 7, 6, 2, intArrayOf(3, 3)).isSatisfied())
+        assertTrue(Values(Sign.Multiply, 24, 6, 3, intArrayOf(2, 3, 4)).isSatisfied())
+        assertTrue(Values(Sign.Subtract, 2, 6, 2, intArrayOf(5, 3)).isSatisfied())
+        assertTrue(Values(Sign.Divide, 3, 6, 2, intArrayOf(2, 6)).isSatisfied())
+        assertFalse(Values(Sign.Divide, 3, 6, 2, intArrayOf(2, 5)).isSatisfied())
+        assertTrue(Values(Sign.None, 4, 6, 1, intArrayOf(4)).isSatisfied())
+
+        // Not every square has a value
+        assertFalse(Values(Sign.Add, 3, 6, 2, intArrayOf(3)).isSatisfied())
+    }
+
+    fun testMultiplyCanBeSatisfied() {
+        assertTrue(Values(Sign.Multiply, 24, 6, 3, intArrayOf(4)).canBeSatisfied())
+        assertFalse(Values(Sign.Multiply, 24, 6, 3, intArrayOf(5)).canBeSatisfied())
+        assertFalse(Values(Sign.Multiply, 24, 6, 2, intArrayOf(2)).canBeSatisfied())
+        assertTrue(Values(Sign.Multiply, 24, 6, 2, intArrayOf(4)).canBeSatisfied())
+    }
+
+    /**
+     * Checks the constant time answer against trying every completion.
+     */
+    fun testCanBeSatisfiedMatchesCompletions() {
+        val order = 6
+        for (sign in arrayOf(Sign.Add, Sign.Subtract, Sign.Divide)) {
+            for (size in 2..3) {
+                for (number in 1..3 * order) {
+                    val all = this.assignments(order, size)
+                    for (filled in 0..size) {
+                        for (prefix in this.assignments(order, filled)) {
+                            val expected = all.any { full ->
+                                prefix.indices.all { prefix[it] == full[it] }
+                                        && Values(sign, number, order, size, full).isSatisfied()
+                            }
+
+                            assertEquals(
+                                    "$sign $number ${prefix.toList()} of $size",
+                                    expected,
+                                    Values(sign, number, order, size, prefix).canBeSatisfied()
+                            )
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private fun assignments(order: Int, size: Int): List<IntArray> {
+        var result = listOf(IntArray(0))
+        for (i in 0 until size) {
+            result = result.flatMap { prefix -> (1..order).map { prefix + it } }
+        }
+        return result
+    }
+
+    fun testBoardTracksCages() {
+        val order = 6
+        val game = KenKenGame(order)
+        val board = game.board
+        val values = game.latinSquare.values
+
+        for ((c, cage) in game.cages.withIndex()) {
+            assertTrue(board.cageCanBeSatisfied(c))
+            assertFalse(board.cageIsSatisfied(c))
+
+            for (p in cage.squares) {
+                game.userSquares[p.x][p.y].value = values[p.x][p.y]
+                assertTrue(board.cageCanBeSatisfied(c))
+            }
+            assertTrue(board.cageIsSatisfied(c))
+            assertTrue(cage.cageIsValid(game.userSquares))
+        }
+        assertTrue(game.isSolved)
+    }
+
+    fun testRepeatedValuesAreNotSolved() {
+        val latinSquare = LatinSquare(arrayOf(intArrayOf(1, 2), intArrayOf(2, 1)))
+        val cage = BaseCage.ToCage(
+                SignNumber(Sign.Add, 6),
+                listOf(Point(0, 0), Point(1, 0), Point(0, 1), Point(1, 1)),
+                Point(0, 0)
+        )
+        val game = KenKenGame(latinSquare, listOf(cage), 0)
+
+        // The cage adds up but both rows repeat a value
+        game.userSquares[0][0].value = 1
+        game.userSquares[1][0].value = 1
+        game.userSquares[0][1].value = 2
+        game.userSquares[1][1].value = 2
+        assertTrue(game.board.cageIsSatisfied(0))
+        assertFalse(game.isSolved)
+
+        game.userSquares[1][0].value = 2
+        game.userSquares[1][1].value = 1
+        assertTrue(game.isSolved)
+    }
+}
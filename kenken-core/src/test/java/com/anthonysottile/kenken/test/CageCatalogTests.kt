@@ -0,0 +1,76 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.LatinSquare
+import com.anthonysottile.kenken.Point
+import com.anthonysottile.kenken.Sign
+import com.anthonysottile.kenken.SignNumber
+import com.anthonysottile.kenken.cages.BaseCage
+import com.anthonysottile.kenken.cages.CageCatalog
+import junit.framework.TestCase
+
+class CageCatalogTests : TestCase() {
+
+    fun testShapeCounts() {
+        // The number of fixed polyominoes of each size
+        val counts = intArrayOf(0, 1, 2, 6, 19, 63, 216)
+
+        val catalog = CageCatalog.GetInstance(CageCatalog.maxSupportedSize)
+        for (size in 1..CageCatalog.maxSupportedSize) {
+            assertEquals(counts[size], catalog.getShapeCount(size))
+        }
+        assertEquals(0, CageCatalog.GetInstance(3).getShapeCount(4))
+    }
+
+    fun testUnsupportedSize() {
+        try {
+            CageCatalog.GetInstance(CageCatalog.maxSupportedSize + 1)
+            fail()
+        } catch (e: IllegalArgumentException) {
+        }
+    }
+
+    fun testGeneratedCages() {
+        for (maxSize in 1..CageCatalog.maxSupportedSize) {
+            val game = KenKenGame(LatinSquare(9), maxSize)
+
+            for (cage in game.cages) {
+                val squares = cage.squares
+                assertTrue(squares.size <= maxSize)
+                assertEquals(squares[0], cage.signLocation)
+
+                // Squares are connected, so the outline is four sides for
+                //  every square less two for every pair of neighbours.
+                var neighbours = 0
+                for (square in squares) {
+                    if (squares.contains(Point(square.x + 1, square.y))) {
+                        neighbours += 1
+                    }
+                    if (squares.contains(Point(square.x, square.y + 1))) {
+                        neighbours += 1
+                    }
+                }
+                assertTrue(neighbours >= squares.size - 1)
+                assertEquals(4 * squares.size - 2 * neighbours, cage.renderLines.sumBy { it.length })
+            }
+        }
+    }
+
+    fun testRestoredCageOutline() {
+        // A U shape wider than any catalog cage, with a notch the outline
+        //  has to follow
+        val squares = listOf(
+                Point(0, 0), Point(4, 0),
+                Point(0, 1), Point(4, 1),
+                Point(0, 2), Point(1, 2), Point(2, 2), Point(3, 2), Point(4, 2)
+        )
+        val cage = BaseCage.ToCage(SignNumber(Sign.Add, 25), squares, squares[0])
+        val lines = cage.renderLines
+
+        assertEquals(20, lines.sumBy { it.length })
+
+        // Collinear edges are merged, the bottom is one line
+        assertTrue(lines.any { it.horizontal && it.position == Point(0, 3) && it.length == 5 })
+        assertEquals(8, lines.size)
+    }
+}
@@ -0,0 +1,81 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.Point
+import com.anthonysottile.kenken.Sign
+import com.anthonysottile.kenken.solver.CageCombinations
+import junit.framework.TestCase
+
+class CageCombinationsTests : TestCase() {
+
+    private val line = listOf(Point(0, 0), Point(1, 0))
+    private val diagonal = listOf(Point(0, 0), Point(1, 1))
+
+    private fun tuples(sign: Sign, number: Int, order: Int, squares: List<Point>): Set<List<Int>> {
+        val table = CageCombinations.get(sign, number, squares.size, order, CageCombinations.layout(squares))
+        return table.tuples.map { tuple -> (0 until table.size).map { table.valueAt(tuple, it) } }.toSet()
+    }
+
+    fun testLayout() {
+        assertEquals(1, CageCombinations.layout(this.line))
+        assertEquals(0, CageCombinations.layout(this.diagonal))
+
+        // An L shape, the corner shares a line with both ends
+        val bent = listOf(Point(0, 0), Point(1, 0), Point(0, 1))
+        assertEquals(1 or (1 shl 1), CageCombinations.layout(bent))
+    }
+
+    fun testSquaresInALineDiffer() {
+        assertEquals(setOf(listOf(1, 3), listOf(3, 1)), this.tuples(Sign.Add, 4, 4, this.line))
+        assertEquals(
+                setOf(listOf(1, 3), listOf(2, 2), listOf(3, 1)),
+                this.tuples(Sign.Add, 4, 4, this.diagonal)
+        )
+    }
+
+    fun testSigns() {
+        assertEquals(setOf(listOf(3)), this.tuples(Sign.None, 3, 4, listOf(Point(0, 0))))
+        assertEquals(
+                setOf(listOf(1, 3), listOf(3, 1), listOf(2, 4), listOf(4, 2)),
+                this.tuples(Sign.Subtract, 2, 4, this.line)
+        )
+        assertEquals(
+                setOf(listOf(1, 2), listOf(2, 1), listOf(2, 4), listOf(4, 2)),
+                this.tuples(Sign.Divide, 2, 4, this.line)
+        )
+        assertEquals(
+                setOf(listOf(2, 3), listOf(3, 2), listOf(1, 6), listOf(6, 1)),
+                this.tuples(Sign.Multiply, 6, 6, this.line)
+        )
+    }
+
+    fun testContains() {
+        val table = CageCombinations.get(Sign.Multiply, 12, 2, 6, CageCombinations.layout(this.line))
+
+        assertTrue(CageCombinations.pack(intArrayOf(3, 4)) in table)
+        assertTrue(CageCombinations.pack(intArrayOf(2, 6)) in table)
+        assertFalse(CageCombinations.pack(intArrayOf(2, 5)) in table)
+        assertEquals((1 shl 1) or (1 shl 2) or (1 shl 3) or (1 shl 5), table.masks[0])
+    }
+
+    fun testSupporting() {
+        val squares = listOf(Point(0, 0), Point(1, 0), Point(1, 1))
+        val table = CageCombinations.get(Sign.Add, 12, 3, 9, CageCombinations.layout(squares))
+
+        for (i in 0 until table.size) {
+            for (value in 1..9) {
+                val j = i * CageCombinations.valueMask + value - 1
+                val indices = (table.supportStart[j] until table.supportStart[j + 1]).map { table.supporting[it] }
+                val expected = table.tuples.indices.filter { table.valueAt(table.tuples[it], i) == value }
+                assertEquals(expected, indices)
+            }
+        }
+    }
+
+    fun testCached() {
+        val layout = CageCombinations.layout(this.line)
+        assertSame(
+                CageCombinations.get(Sign.Add, 7, 2, 9, layout),
+                CageCombinations.get(Sign.Add, 7, 2, 9, layout)
+        )
+    }
+}
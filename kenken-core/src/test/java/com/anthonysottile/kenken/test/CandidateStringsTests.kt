@@ -0,0 +1,28 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.CandidateStrings
+import junit.framework.TestCase
+
+class CandidateStringsTests : TestCase() {
+
+    fun testSmallMasks() {
+        assertEquals("", CandidateStrings.get(0))
+        assertEquals("1 3", CandidateStrings.get(5))
+        assertEquals("1 2 3 4 5 6 7 8 9", CandidateStrings.get((1 shl 9) - 1))
+        assertSame(CandidateStrings.get(5), CandidateStrings.get(5))
+    }
+
+    fun testLargeMasks() {
+        assertEquals("10", CandidateStrings.get(1 shl 9))
+        assertEquals("1 25", CandidateStrings.get(1 or (1 shl 24)))
+
+        assertSame(CandidateStrings.get(1 shl 9), CandidateStrings.get(1 shl 9))
+
+        // More masks than the cache holds are still built correctly
+        for (i in 1..4 * CandidateStrings.capacity) {
+            val mask = i shl 9
+            val text = CandidateStrings.get(mask)
+            assertEquals(mask, text.split(' ').sumBy { 1 shl (it.toInt() - 1) })
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.GameTimer
+import junit.framework.TestCase
+
+class GameTimerTests : TestCase() {
+
+    private var now = 0L
+    private val timer = GameTimer { this.now }
+
+    private fun format(): String {
+        val buffer = CharArray(GameTimer.formattedLength + 4)
+        return String(buffer, 0, this.timer.format(buffer))
+    }
+
+    fun testSegments() {
+        this.now = 5000
+        assertEquals(0, this.timer.elapsed)
+
+        this.timer.start()
+        this.now = 7500
+        assertEquals(2500, this.timer.elapsed)
+
+        // Paused time does not count
+        this.timer.pause()
+        this.now = 60000
+        assertEquals(2500, this.timer.elapsed)
+
+        this.timer.start()
+        this.now = 61000
+        assertEquals(3500, this.timer.elapsed)
+
+        this.timer.penalize(15000)
+        assertEquals(18500, this.timer.elapsed)
+    }
+
+    fun testReset() {
+        this.timer.start()
+        this.now = 10000
+
+        this.timer.reset(3000)
+        assertEquals(3000, this.timer.elapsed)
+        assertTrue(this.timer.isRunning)
+
+        this.now = 11000
+        assertEquals(4000, this.timer.elapsed)
+    }
+
+    fun testMillisUntilNextSecond() {
+        this.timer.start()
+        this.now = 1250
+        assertEquals(750, this.timer.millisUntilNextSecond())
+
+        this.now = 2000
+        assertEquals(1000, this.timer.millisUntilNextSecond())
+    }
+
+    fun testFormat() {
+        assertEquals("00:00:00", this.format())
+
+        this.timer.reset((2 * 3600 + 5 * 60 + 9) * 1000L + 999)
+        assertEquals("02:05:09", this.format())
+
+        this.timer.reset(123 * 3600 * 1000L)
+        assertEquals("123:00:00", this.format())
+    }
+}
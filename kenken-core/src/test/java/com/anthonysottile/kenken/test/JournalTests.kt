@@ -0,0 +1,83 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.Journal
+import com.anthonysottile.kenken.KenKenGame
+import junit.framework.TestCase
+
+class JournalTests : TestCase() {
+
+    private val game = KenKenGame(6, 11L)
+    private val board = this.game.board
+
+    private fun snapshot(): IntArray {
+        return IntArray(2 * this.board.squareCount) { i ->
+            val square = i / 2
+            if (i % 2 == 0) this.board.getValue(square) else this.board.getCandidates(square)
+        }
+    }
+
+    fun testUndoRedo() {
+        val journal = Journal(this.board)
+        assertFalse(journal.canUndo)
+
+        val empty = this.snapshot()
+        this.game.userSquares[0][0].value = 3
+        this.game.userSquares[1][4].addCandidate(2)
+        this.game.userSquares[1][4].addCandidate(5)
+        val played = this.snapshot()
+
+        assertTrue(journal.undo())
+        assertEquals(1 shl 1, this.board.getCandidates(this.board.indexOf(1, 4)))
+        assertTrue(journal.undo())
+        assertTrue(journal.undo())
+        assertTrue(empty contentEquals this.snapshot())
+        assertFalse(journal.undo())
+
+        while (journal.redo()) {
+        }
+        assertTrue(played contentEquals this.snapshot())
+
+        // A new change drops what could be redone
+        journal.undo()
+        this.game.userSquares[0][0].value = 0
+        assertFalse(journal.canRedo)
+        journal.undo()
+        assertEquals(3, this.game.userSquares[0][0].value)
+    }
+
+    fun testTransaction() {
+        val journal = Journal(this.board)
+        this.game.userSquares[2][2].value = 1
+        val before = this.snapshot()
+
+        journal.transaction { this.game.autoFill() }
+        val filled = this.board.filledCount
+        assertTrue(filled > 1)
+
+        // The whole fill is undone at once
+        assertTrue(journal.undo())
+        assertTrue(before contentEquals this.snapshot())
+
+        assertTrue(journal.redo())
+        assertEquals(filled, this.board.filledCount)
+        assertFalse(journal.canRedo)
+    }
+
+    fun testBounded() {
+        val journal = Journal(this.board, 8)
+        for (move in 1..20) {
+            this.game.userSquares[move % 6][0].value = move / 6 % 2 + 1
+        }
+        val played = this.snapshot()
+
+        var undone = 0
+        while (journal.undo()) {
+            undone += 1
+        }
+        assertEquals(8, undone)
+
+        while (journal.redo()) {
+        }
+        assertTrue(played contentEquals this.snapshot())
+    }
+}
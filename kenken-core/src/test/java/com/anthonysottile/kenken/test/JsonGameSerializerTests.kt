@@ -0,0 +1,40 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.serialization.JsonGameSerializer
+import junit.framework.TestCase
+import org.json.JSONObject
+
+class JsonGameSerializerTests : TestCase() {
+
+    fun testRoundTrip() {
+        val game = KenKenGame(6)
+        game.userSquares[0][0].value = game.latinSquare.values[0][0]
+        game.userSquares[1][2].addCandidate(3)
+        game.userSquares[1][2].addCandidate(5)
+
+        // Go through the string form just like the activity does
+        val json = JSONObject(JsonGameSerializer.serialize(game).toString())
+        val restored = JsonGameSerializer.deserialize(json)
+
+        assertEquals(6, restored.latinSquare.order)
+        for (i in 0 until 6) {
+            for (j in 0 until 6) {
+                assertEquals(game.latinSquare.values[i][j], restored.latinSquare.values[i][j])
+            }
+        }
+
+        assertEquals(game.cages.size, restored.cages.size)
+        for ((i, cage) in game.cages.withIndex()) {
+            val restoredCage = restored.cages[i]
+            assertEquals(cage.squares, restoredCage.squares)
+            assertEquals(cage.signLocation, restoredCage.signLocation)
+            assertEquals(cage.signNumber.toString(), restoredCage.signNumber.toString())
+            assertEquals(cage.renderLines.size, restoredCage.renderLines.size)
+        }
+
+        assertEquals(1, restored.squaresWithValues)
+        assertEquals(game.latinSquare.values[0][0], restored.userSquares[0][0].value)
+        assertEquals("3 5", restored.userSquares[1][2].getCandidatesString())
+    }
+}
@@ -0,0 +1,224 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.LatinSquare
+import com.anthonysottile.kenken.Point
+import com.anthonysottile.kenken.Sign
+import com.anthonysottile.kenken.SignNumber
+import com.anthonysottile.kenken.cages.BaseCage
+import com.anthonysottile.kenken.solver.Solver
+import junit.framework.TestCase
+
+class KenKenGameTests : TestCase() {
+
+    fun testGetDisabled() {
+        val game = KenKenGame(5)
+        val values = game.latinSquare.values
+
+        game.userSquares[0][1].value = values[0][1]
+        game.userSquares[2][0].value = values[2][0]
+        game.userSquares[0][0].value = values[0][0]
+
+        // A square's own value is never disabled for itself
+        val expected = (1 shl (values[0][1] - 1)) or (1 shl (values[2][0] - 1))
+        assertEquals(expected, game.getDisabled(0, 0))
+    }
+
+    fun testAutoFill() {
+        val order = 6
+        val game = KenKenGame(order)
+        val values = game.latinSquare.values
+
+        // Leave the diagonal empty, every one of those squares is then forced
+        for (i in 0 until order) {
+            for (j in 0 until order) {
+                if (i != j) {
+                    game.userSquares[i][j].value = values[i][j]
+                }
+            }
+        }
+
+        game.autoFill()
+
+        assertEquals(order * order, game.squaresWithValues)
+        for (i in 0 until order) {
+            assertEquals(values[i][i], game.userSquares[i][i].value)
+        }
+    }
+
+    fun testAutoFillFromCage() {
+        val latinSquare = LatinSquare(arrayOf(
+                intArrayOf(1, 2, 3),
+                intArrayOf(2, 3, 1),
+                intArrayOf(3, 1, 2)
+        ))
+        val cage = BaseCage.ToCage(
+                SignNumber(Sign.Add, 3),
+                listOf(Point(0, 0), Point(1, 0)),
+                Point(0, 0)
+        )
+        val game = KenKenGame(latinSquare, listOf(cage), 0)
+        game.userSquares[0][0].value = 1
+
+        game.autoFill()
+
+        // The cage forces the 2, which leaves only the 3 for the column
+        assertEquals(2, game.userSquares[1][0].value)
+        assertEquals(3, game.userSquares[2][0].value)
+        assertEquals(3, game.squaresWithValues)
+    }
+
+    fun testAutoFillCascades() {
+        val order = 6
+        val game = KenKenGame(order)
+        val values = game.latinSquare.values
+
+        // Only the last row and column are left, each filled square forces
+        //  the next; run twice to check the fill can be repeated
+        for (pass in 0 until 2) {
+            for (i in 0 until order - 1) {
+                for (j in 0 until order - 1) {
+                    game.userSquares[i][j].value = values[i][j]
+                }
+            }
+            for (k in 0 until order) {
+                game.userSquares[order - 1][k].value = 0
+                game.userSquares[k][order - 1].value = 0
+            }
+
+            game.autoFill()
+
+            assertEquals(order * order, game.squaresWithValues)
+            assertTrue(game.isSolved)
+        }
+    }
+
+    fun testGeneratedGamesAreUnique() {
+        for (order in 4..9) {
+            val game = KenKenGame(order)
+
+            assertTrue(Solver(game).solve().isUnique)
+
+            // Every square is still covered by exactly one cage
+            val covered = Array(order) { IntArray(order) }
+            for (cage in game.cages) {
+                for (square in cage.squares) {
+                    covered[square.x][square.y] += 1
+                }
+            }
+            for (row in covered) {
+                for (count in row) {
+                    assertEquals(1, count)
+                }
+            }
+        }
+    }
+
+    private fun describe(game: KenKenGame): String {
+        val builder = StringBuilder()
+        for (row in game.latinSquare.values) {
+            builder.append(row.joinToString(",")).append(';')
+        }
+        for (cage in game.cages) {
+            builder.append(cage.signNumber).append(cage.squares).append(';')
+        }
+        return builder.toString()
+    }
+
+    fun testSeededGamesRepeat() {
+        for (order in 4..9) {
+            val seed = 1000L + order
+            val game = KenKenGame(order, seed)
+            assertEquals(seed, game.seed)
+            assertEquals(this.describe(game), this.describe(KenKenGame(order, seed)))
+            assertFalse(this.describe(game) == this.describe(KenKenGame(order, seed + 1)))
+        }
+    }
+
+    fun testSeededGamesRepeatAcrossThreads() {
+        val expected = this.describe(KenKenGame(9, 7L))
+        val results = arrayOfNulls<String>(4)
+        val threads = Array(results.size) { i ->
+            Thread { results[i] = this.describe(KenKenGame(9, 7L)) }
+        }
+        threads.forEach { it.start() }
+        threads.forEach { it.join() }
+        for (result in results) {
+            assertEquals(expected, result)
+        }
+    }
+
+    fun testLargeOrders() {
+        for (order in intArrayOf(12, 16, 20, 25)) {
+            // Both the seeded and the timed generation
+            for (game in listOf(KenKenGame(order), KenKenGame(LatinSquare(order)))) {
+                assertTrue(game.generationStatistics!!.elapsedNanos < 10000000000L)
+
+                val result = Solver(game).solve()
+                assertTrue(result.isUnique)
+                assertTrue(result.solutions[0] contentDeepEquals game.latinSquare.values)
+            }
+        }
+    }
+
+    fun testOccupancy() {
+        val game = KenKenGame(6)
+        for (row in game.cageSquareOccupied) {
+            assertEquals((1L shl 6) - 1, row)
+        }
+
+        val square = Point(5, 2)
+        game.clearOccupied(square)
+        assertFalse(game.squareIsOccupied(5, 2))
+        assertTrue(game.squareIsValid(square))
+        assertTrue(game.squareIsOccupied(4, 2))
+        assertFalse(game.squareIsValid(Point(6, 2)))
+
+        game.setOccupied(square)
+        assertTrue(game.squareIsOccupied(5, 2))
+    }
+
+    fun testIsSolved() {
+        val order = 5
+        val game = KenKenGame(order)
+        val values = game.latinSquare.values
+
+        for (i in 0 until order) {
+            for (j in 0 until order) {
+                game.userSquares[i][j].value = values[i][j]
+            }
+        }
+        assertTrue(game.isSolved)
+        assertEquals(game.cages.size, game.satisfiedCages)
+
+        // A wrong value breaks only the cage it is in
+        val wrong = values[0][0] % order + 1
+        game.userSquares[0][0].value = wrong
+        assertFalse(game.isSolved)
+        assertEquals(game.cages.size - 1, game.satisfiedCages)
+        assertEquals(order * order, game.squaresWithValues)
+
+        game.userSquares[0][0].value = 0
+        assertFalse(game.isSolved)
+        assertEquals(order * order - 1, game.squaresWithValues)
+
+        game.userSquares[0][0].value = values[0][0]
+        assertTrue(game.isSolved)
+    }
+
+    fun testBoardCages() {
+        val game = KenKenGame(7)
+        val board = game.board
+
+        assertEquals(game.cages.size, board.cageCount)
+        for ((c, cage) in game.cages.withIndex()) {
+            val start = board.cageStart[c]
+            assertEquals(cage.squares.size, board.cageStart[c + 1] - start)
+            for ((i, p) in cage.squares.withIndex()) {
+                val square = board.indexOf(p.x, p.y)
+                assertEquals(square, board.cageSquares[start + i])
+                assertEquals(c, board.squareCage[square])
+            }
+        }
+    }
+}
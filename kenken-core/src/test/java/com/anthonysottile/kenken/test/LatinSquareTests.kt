@@ -0,0 +1,127 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.CyclicLatinSquareGenerator
+import com.anthonysottile.kenken.JacobsonMatthewsGenerator
+import com.anthonysottile.kenken.LatinSquare
+import com.anthonysottile.kenken.LatinSquareGenerator
+
+import junit.framework.TestCase
+
+class LatinSquareTests : TestCase() {
+
+    private val LatinSquareSize = 4
+    private val square = LatinSquare(LatinSquareSize)
+
+    fun testGetValues() {
+        val values = square.values
+
+        // Assert the sizes of the arrays
+        assertEquals(LatinSquareSize, values.size)
+        for (i in 0 until LatinSquareSize) {
+            assertEquals(LatinSquareSize, values[i].size)
+        }
+
+        // Assert that each of the values is in range
+        for (i in 0 until LatinSquareSize) {
+            for (j in 0 until LatinSquareSize) {
+                assert(values[i][j] in 1..LatinSquareSize)
+            }
+        }
+
+        // Assert that each row and column has the correct sum
+        for (i in 0 until LatinSquareSize) {
+            var rowSum = 0
+            var colSum = 0
+            for (j in 0 until LatinSquareSize) {
+                rowSum += values[j][i]
+                colSum += values[i][j]
+            }
+
+            // sum(i, i = 1..n) = n * (n + 1) / 2
+            assertEquals(LatinSquareSize * (LatinSquareSize + 1) / 2, rowSum)
+            assertEquals(LatinSquareSize * (LatinSquareSize + 1) / 2, colSum)
+        }
+    }
+
+    fun testGetOrder() {
+        assertEquals(LatinSquareSize, this.square.order)
+    }
+
+    fun testLatinSquare() {
+        for (i in 4..9) {
+            val s = LatinSquare(i)
+            assertEquals(i, s.order)
+        }
+    }
+
+    private fun assertIsLatinSquare(order: Int, values: Array<IntArray>) {
+        assertEquals(order, values.size)
+        for (i in 0 until order) {
+            val rowSeen = BooleanArray(order + 1)
+            val colSeen = BooleanArray(order + 1)
+            for (j in 0 until order) {
+                assert(values[i][j] in 1..order)
+                assertFalse(rowSeen[values[i][j]])
+                assertFalse(colSeen[values[j][i]])
+                rowSeen[values[i][j]] = true
+                colSeen[values[j][i]] = true
+            }
+        }
+    }
+
+    private fun assertGeneratesLatinSquares(generator: LatinSquareGenerator) {
+        for (order in listOf(1, 2, 3, 4, 5, 6, 7, 8, 9, 12, 16, 25)) {
+            val s = LatinSquare(order, generator)
+            assertEquals(order, s.order)
+            this.assertIsLatinSquare(order, s.values)
+        }
+    }
+
+    fun testCyclicGenerator() {
+        this.assertGeneratesLatinSquares(CyclicLatinSquareGenerator())
+    }
+
+    fun testJacobsonMatthewsGenerator() {
+        this.assertGeneratesLatinSquares(JacobsonMatthewsGenerator())
+    }
+
+    fun testJacobsonMatthewsGeneratorWithoutMixing() {
+        // With no mixing steps the starting cyclic square comes back out
+        val values = LatinSquare(5, JacobsonMatthewsGenerator(0)).values
+        for (i in 0 until 5) {
+            for (j in 0 until 5) {
+                assertEquals((i + j) % 5 + 1, values[i][j])
+            }
+        }
+    }
+
+    fun testJacobsonMatthewsGeneratorVariety() {
+        // Fixing the first row and column, there are 56 reduced squares of order 5.
+        //  The cyclic family only ever produces one of those, so this would
+        //  fail for it, while the chain should hit many of them.
+        val reduced = HashSet<String>()
+        val generator = JacobsonMatthewsGenerator()
+        for (i in 0 until 500) {
+            val values = LatinSquare(5, generator).values
+            reduced.add(LatinSquareTests.reduce(values).joinToString(",") { it.joinToString("") })
+        }
+        assertTrue(reduced.size > 20)
+    }
+
+    companion object {
+        /**
+         * Relabels symbols so the first row is 1..n and then orders the rows by
+         *  their first value, giving the reduced form of the square.
+         */
+        private fun reduce(values: Array<IntArray>): Array<IntArray> {
+            val order = values.size
+            val relabel = IntArray(order + 1)
+            for (j in 0 until order) {
+                relabel[values[0][j]] = j + 1
+            }
+            val rows = Array(order) { i -> IntArray(order) { j -> relabel[values[i][j]] } }
+            rows.sortBy { it[0] }
+            return rows
+        }
+    }
+}
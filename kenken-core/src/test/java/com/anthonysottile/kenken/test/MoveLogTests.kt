@@ -0,0 +1,196 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.serialization.BackgroundSink
+import com.anthonysottile.kenken.serialization.MoveLog
+import junit.framework.TestCase
+import java.io.IOException
+import java.util.*
+import java.util.concurrent.Executor
+
+class MoveLogTests : TestCase() {
+
+    /**
+     * Keeps what a host would have saved.
+     */
+    private class MemorySink : MoveLog.Sink {
+        var data = ByteArray(0)
+        var appends = 0
+        var replaces = 0
+
+        override fun append(bytes: ByteArray, offset: Int, length: Int) {
+            this.data += bytes.copyOfRange(offset, offset + length)
+            this.appends += 1
+        }
+
+        override fun replace(bytes: ByteArray, offset: Int, length: Int) {
+            this.data = bytes.copyOfRange(offset, offset + length)
+            this.replaces += 1
+        }
+    }
+
+    private class FailingSink(private val sink: MoveLog.Sink) : MoveLog.Sink {
+        var failing = false
+
+        override fun append(bytes: ByteArray, offset: Int, length: Int) {
+            if (this.failing) {
+                throw IOException()
+            }
+            this.sink.append(bytes, offset, length)
+        }
+
+        override fun replace(bytes: ByteArray, offset: Int, length: Int) {
+            if (this.failing) {
+                throw IOException()
+            }
+            this.sink.replace(bytes, offset, length)
+        }
+    }
+
+    private fun assertSameBoard(expected: KenKenGame, actual: KenKenGame) {
+        val board = expected.board
+        for (square in 0 until board.squareCount) {
+            assertEquals(board.getValue(square), actual.board.getValue(square))
+            assertEquals(board.getCandidates(square), actual.board.getCandidates(square))
+        }
+    }
+
+    fun testRoundTrip() {
+        val game = KenKenGame(6, 42L)
+        val log = MoveLog(game)
+        val sink = MemorySink()
+        log.flush(sink)
+        val start = sink.data.size
+
+        game.userSquares[0][0].value = game.latinSquare.values[0][0]
+        game.userSquares[5][3].value = 2
+        game.userSquares[1][2].addCandidate(3)
+        game.userSquares[1][2].addCandidate(6)
+        game.userSquares[1][2].removeCandidate(3)
+        game.userSquares[5][3].value = 0
+        log.penalized(15000)
+        log.flush(sink)
+
+        // Moves after the first flush are appended a few bytes at a time
+        assertEquals(1, sink.replaces)
+        assertEquals(1, sink.appends)
+        assertTrue(sink.data.size - start < 32)
+
+        val restored = MoveLog.restore(sink.data)
+        this.assertSameBoard(game, restored.game)
+        assertEquals(42L, restored.game.seed)
+        assertTrue(restored.game.timer.elapsed >= 15000)
+
+        // The restored log keeps appending to what was saved
+        restored.game.userSquares[2][2].value = 1
+        restored.game.timer.pause()
+        restored.paused()
+        restored.flush(sink)
+        assertEquals(2, sink.appends)
+
+        val again = MoveLog.restore(sink.data)
+        this.assertSameBoard(restored.game, again.game)
+        val paused = restored.game.timer.elapsed
+        assertTrue(again.game.timer.elapsed in paused until paused + 1000)
+    }
+
+    fun testCheckpoints() {
+        val game = KenKenGame(5, 7L)
+        val log = MoveLog(game, 4)
+        val sink = MemorySink()
+        log.flush(sink)
+        val start = sink.data.size
+
+        for (move in 0 until 50) {
+            val x = move % 5
+            val y = move / 5 % 5
+            game.userSquares[x][y].value = move % 5 + 1
+            log.flush(sink)
+        }
+
+        // Every checkpoint starts the log over, so it stays small
+        assertTrue(sink.replaces > 1)
+        assertTrue(sink.data.size < start + 4 * 4)
+
+        this.assertSameBoard(game, MoveLog.restore(sink.data).game)
+    }
+
+    fun testRejectsDamagedLog() {
+        val data = MoveLog(KenKenGame(4, 3L)).toByteArray()
+
+        try {
+            MoveLog.restore(data.copyOf(data.size - 5))
+            fail()
+        } catch (e: IllegalArgumentException) {
+        }
+
+        data[1] = (data[1] + 1).toByte()
+        try {
+            MoveLog.restore(data)
+            fail()
+        } catch (e: IllegalArgumentException) {
+        }
+    }
+
+    fun testKeepsPuzzle() {
+        // Games laid out over a given latin square have no seed to generate
+        //  them again from, so the log has to hold the puzzle
+        val game = KenKenGame(KenKenGame(5).latinSquare)
+        val log = MoveLog(game)
+        game.userSquares[3][1].value = 4
+
+        val restored = MoveLog.restore(log.toByteArray()).game
+        assertNull(restored.seed)
+        for (i in 0 until 5) {
+            assertTrue(game.latinSquare.values[i].contentEquals(restored.latinSquare.values[i]))
+        }
+        assertEquals(game.cages.size, restored.cages.size)
+        for ((i, cage) in game.cages.withIndex()) {
+            assertEquals(cage.signNumber.number, restored.cages[i].signNumber.number)
+            assertEquals(cage.squares, restored.cages[i].squares)
+        }
+        this.assertSameBoard(game, restored)
+    }
+
+    fun testBackgroundSink() {
+        val writes = ArrayDeque<Runnable>()
+        val memory = MemorySink()
+        val failing = FailingSink(memory)
+        val sink = BackgroundSink(Executor { writes.addLast(it) }, failing)
+
+        val game = KenKenGame(5, 11L)
+        val log = MoveLog(game)
+        log.flush(sink)
+        game.userSquares[0][0].value = 1
+        log.flush(sink)
+
+        // Nothing is written until the executor runs
+        assertEquals(0, memory.data.size)
+        while (!writes.isEmpty()) {
+            writes.pollFirst().run()
+        }
+        assertTrue(memory.data contentEquals log.toByteArray())
+
+        // A failed write is reported by the next flush, which then replaces
+        //  the whole log
+        failing.failing = true
+        game.userSquares[1][1].value = 2
+        log.flush(sink)
+        writes.pollFirst().run()
+        failing.failing = false
+
+        game.userSquares[2][2].value = 3
+        try {
+            log.flush(sink)
+            fail()
+        } catch (e: IOException) {
+        }
+        log.flush(sink)
+        while (!writes.isEmpty()) {
+            writes.pollFirst().run()
+        }
+
+        assertEquals(2, memory.replaces)
+        this.assertSameBoard(game, MoveLog.restore(memory.data).game)
+    }
+}
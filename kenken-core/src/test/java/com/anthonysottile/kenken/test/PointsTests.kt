@@ -1,7 +1,8 @@
 package com.anthonysottile.kenken.test
 
-import android.graphics.Point
+import com.anthonysottile.kenken.Point
 import com.anthonysottile.kenken.Points
+import com.anthonysottile.kenken.serialization.JsonGameSerializer
 import junit.framework.TestCase
 import org.json.JSONObject
 
@@ -90,7 +91,7 @@ class PointsTests : TestCase() {
     }
 
     fun testToJSON() {
-        val json = Points.toJson(point)
+        val json = JsonGameSerializer.pointToJson(point)
 
         assertEquals(json.getInt("X"), startPointX)
         assertEquals(json.getInt("Y"), startPointY)
@@ -102,7 +103,7 @@ class PointsTests : TestCase() {
         json.put("X", startPointX)
         json.put("Y", startPointY)
 
-        val p = Points.toPoint(json)
+        val p = JsonGameSerializer.toPoint(json)
         assertEquals(p.x, startPointX)
         assertEquals(p.y, startPointY)
     }
@@ -0,0 +1,158 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.KenKenGame
+import com.anthonysottile.kenken.pool.PuzzlePool
+import com.anthonysottile.kenken.pool.PuzzleStore
+import com.anthonysottile.kenken.serialization.JsonStringGameSerializer
+import junit.framework.TestCase
+import java.util.*
+import java.util.concurrent.Executor
+
+class PuzzlePoolTests : TestCase() {
+
+    private class MemoryPuzzleStore : PuzzleStore {
+        val saved = HashMap<String, List<String>>()
+
+        override fun load(key: String): List<String> {
+            return this.saved[key] ?: emptyList()
+        }
+
+        override fun save(key: String, puzzles: List<String>) {
+            this.saved[key] = ArrayList(puzzles)
+        }
+    }
+
+    /**
+     * Runs tasks only when asked, standing in for a background thread.
+     */
+    private class QueueExecutor : Executor {
+        val tasks = ArrayDeque<Runnable>()
+
+        override fun execute(command: Runnable) {
+            this.tasks.addLast(command)
+        }
+
+        fun runNext() {
+            this.tasks.pollFirst().run()
+        }
+    }
+
+    private val directExecutor = Executor { it.run() }
+
+    private fun take(pool: PuzzlePool, size: Int): KenKenGame? {
+        var taken: KenKenGame? = null
+        pool.take(size) { taken = it }
+        return taken
+    }
+
+    fun testPrefill() {
+        val store = MemoryPuzzleStore()
+        val pool = PuzzlePool(this.directExecutor, this.directExecutor, store, JsonStringGameSerializer, 2)
+
+        assertEquals(0, pool.available(5))
+        pool.prefill(5)
+
+        assertEquals(2, pool.available(5))
+        assertEquals(0, pool.available(6))
+        assertEquals(2, store.load("5").size)
+    }
+
+    fun testTakeRefills() {
+        val store = MemoryPuzzleStore()
+        val pool = PuzzlePool(this.directExecutor, this.directExecutor, store, JsonStringGameSerializer, 2)
+        pool.prefill(4)
+
+        val game = this.take(pool, 4)!!
+
+        assertEquals(4, game.latinSquare.order)
+        assertEquals(0, game.squaresWithValues)
+        assertEquals(2, pool.available(4))
+        assertEquals(2, store.load("4").size)
+    }
+
+    fun testTakeFromEmptyPool() {
+        val executor = QueueExecutor()
+        val delivered = QueueExecutor()
+        val pool = PuzzlePool(executor, delivered, MemoryPuzzleStore(), JsonStringGameSerializer, 1)
+
+        var taken: KenKenGame? = null
+        pool.take(6) { taken = it }
+
+        // Nothing is generated on the taker's thread
+        assertNull(taken)
+        assertEquals(0, pool.available(6))
+
+        // The taker is served before the pool is refilled
+        executor.runNext()
+        assertEquals(0, pool.available(6))
+        assertNull(taken)
+        delivered.runNext()
+        assertEquals(6, taken!!.latinSquare.order)
+
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext()
+        }
+        assertEquals(1, pool.available(6))
+    }
+
+    fun testPersistsLatest() {
+        val executor = QueueExecutor()
+        val store = MemoryPuzzleStore()
+        val pool = PuzzlePool(executor, this.directExecutor, store, JsonStringGameSerializer, 2)
+        pool.prefill(4)
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext()
+        }
+
+        // The write queued by the take runs after the refill's, and must not
+        //  bring back the puzzle taken
+        this.take(pool, 4)
+        this.take(pool, 4)
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext()
+        }
+
+        assertEquals(2, pool.available(4))
+        assertEquals(2, store.load("4").size)
+    }
+
+    fun testRestoreFromStore() {
+        val store = MemoryPuzzleStore()
+        val first = PuzzlePool(this.directExecutor, this.directExecutor, store, JsonStringGameSerializer, 1)
+        first.prefill(5)
+        val saved = JsonStringGameSerializer.deserialize(store.load("5")[0])
+
+        val second = PuzzlePool(Executor { }, this.directExecutor, store, JsonStringGameSerializer, 1)
+        assertEquals(1, second.available(5))
+
+        val game = this.take(second, 5)!!
+        for (i in 0 until 5) {
+            assertTrue(saved.latinSquare.values[i].contentEquals(game.latinSquare.values[i]))
+        }
+        assertEquals(saved.cages.size, game.cages.size)
+    }
+
+    fun testHardModePoolIsFolded() {
+        val store = MemoryPuzzleStore()
+        val first = PuzzlePool(this.directExecutor, this.directExecutor, store, JsonStringGameSerializer, 1)
+        first.prefill(4)
+        store.save("4-Hard", store.load("4"))
+
+        val second = PuzzlePool(this.directExecutor, this.directExecutor, store, JsonStringGameSerializer, 1)
+        assertEquals(2, second.available(4))
+        assertEquals(2, store.load("4").size)
+        assertEquals(0, store.load("4-Hard").size)
+    }
+
+    fun testUnreadablePuzzleIsReplaced() {
+        val store = MemoryPuzzleStore()
+        store.save("7", listOf("not a puzzle"))
+        val pool = PuzzlePool(this.directExecutor, this.directExecutor, store, JsonStringGameSerializer, 1)
+
+        val game = this.take(pool, 7)!!
+
+        assertEquals(7, game.latinSquare.order)
+        assertEquals(1, pool.available(7))
+        assertEquals(1, store.load("7").size)
+    }
+}
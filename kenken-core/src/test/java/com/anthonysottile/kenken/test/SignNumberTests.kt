@@ -2,6 +2,7 @@ package com.anthonysottile.kenken.test
 
 import com.anthonysottile.kenken.Sign
 import com.anthonysottile.kenken.SignNumber
+import com.anthonysottile.kenken.serialization.JsonGameSerializer
 import junit.framework.TestCase
 import org.json.JSONObject
 
@@ -42,7 +43,7 @@ class SignNumberTests : TestCase() {
         json.put("Sign", Sign.Add.intValue)
         json.put("Number", 15)
 
-        val test = SignNumber(json)
+        val test = JsonGameSerializer.toSignNumber(json)
         assertEquals(test.sign, Sign.Add)
         assertEquals(test.number, 15)
     }
@@ -50,7 +51,7 @@ class SignNumberTests : TestCase() {
     fun testToJson() {
         val test = SignNumber(Sign.Add, 15)
 
-        val json = test.toJson()
+        val json = JsonGameSerializer.signNumberToJson(test)
 
         assertEquals(json.getInt("Sign"), Sign.Add.intValue)
         assertEquals(json.getInt("Number"), 15)
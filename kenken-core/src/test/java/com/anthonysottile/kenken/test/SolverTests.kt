@@ -0,0 +1,182 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.*
+import com.anthonysottile.kenken.cages.BaseCage
+import com.anthonysottile.kenken.cages.CageGenerator
+import com.anthonysottile.kenken.cages.ICage
+import com.anthonysottile.kenken.solver.CageCombinations
+import com.anthonysottile.kenken.solver.Solver
+import junit.framework.TestCase
+
+class SolverTests : TestCase() {
+
+    private fun cage(sign: Sign, number: Int, vararg squares: Point): ICage {
+        return BaseCage.ToCage(SignNumber(sign, number), squares.toList(), squares[0])
+    }
+
+    private fun assertSolves(puzzle: KenKenGame, solution: Array<IntArray>) {
+        val game = KenKenGame(puzzle.latinSquare, puzzle.cages, 0)
+        val order = game.latinSquare.order
+        for (i in 0 until order) {
+            for (j in 0 until order) {
+                game.userSquares[i][j].value = solution[i][j]
+            }
+        }
+        assertEquals(order * order, game.squaresWithValues)
+        for (i in 0 until order) {
+            assertEquals(order, game.rowValues[i].size)
+            assertEquals(order, game.colValues[i].size)
+        }
+        for (cage in game.cages) {
+            assertTrue(cage.cageIsValid(game.userSquares))
+        }
+    }
+
+    fun testSolvesGeneratedGames() {
+        for (order in 4..9) {
+            val game = KenKenGame(order)
+            val result = Solver(game).solve()
+
+            assertTrue(result.isSolvable)
+            for (solution in result.solutions) {
+                this.assertSolves(game, solution)
+            }
+        }
+    }
+
+    fun testReusedSolver() {
+        val solver = Solver(6)
+        for (seed in 1L..4L) {
+            val game = KenKenGame(6, seed)
+            solver.setCages(game.cages)
+
+            val reused = solver.solve(10)
+            val fresh = Solver(game).solve(10)
+            assertEquals(fresh.solutions.size, reused.solutions.size)
+            for ((i, solution) in fresh.solutions.withIndex()) {
+                assertTrue(solution contentDeepEquals reused.solutions[i])
+            }
+        }
+    }
+
+    fun testSingleSquareCagesAreUnique() {
+        val latinSquare = LatinSquare(4)
+        val cages = ArrayList<ICage>()
+        for (x in 0 until 4) {
+            for (y in 0 until 4) {
+                cages.add(this.cage(Sign.None, latinSquare.values[x][y], Point(x, y)))
+            }
+        }
+
+        val result = Solver(4, cages).solve()
+        assertTrue(result.isUnique)
+        for (x in 0 until 4) {
+            for (y in 0 until 4) {
+                assertEquals(latinSquare.values[x][y], result.solutions[0][x][y])
+            }
+        }
+    }
+
+    fun testFindsSecondSolution() {
+        // Both latin squares of order 2 satisfy two "3 +" columns
+        val cages = listOf(
+                this.cage(Sign.Add, 3, Point(0, 0), Point(0, 1)),
+                this.cage(Sign.Add, 3, Point(1, 0), Point(1, 1))
+        )
+
+        val result = Solver(2, cages).solve()
+        assertEquals(2, result.solutions.size)
+        assertFalse(result.isUnique)
+
+        // Asking for more does not find more
+        assertEquals(2, Solver(2, cages).solve(10).solutions.size)
+    }
+
+    fun testGivens() {
+        val cages = listOf(
+                this.cage(Sign.Add, 3, Point(0, 0), Point(0, 1)),
+                this.cage(Sign.Add, 3, Point(1, 0), Point(1, 1))
+        )
+        val givens = arrayOf(intArrayOf(2, 0), intArrayOf(0, 0))
+
+        val result = Solver(2, cages).solve(2, givens)
+        assertTrue(result.isUnique)
+        assertEquals(2, result.solutions[0][0][0])
+        assertEquals(1, result.solutions[0][1][0])
+    }
+
+    /**
+     * Counts the latin squares satisfying every cage by trying them all.
+     */
+    private fun countSolutions(order: Int, cages: List<ICage>, values: Array<IntArray>, cell: Int): Int {
+        if (cell == order * order) {
+            for (cage in cages) {
+                val tuple = CageCombinations.pack(IntArray(cage.squares.size) { i ->
+                    values[cage.squares[i].x][cage.squares[i].y]
+                })
+                if (tuple !in cage.getCombinations(order)) {
+                    return 0
+                }
+            }
+            return 1
+        }
+
+        val x = cell / order
+        val y = cell % order
+        var count = 0
+        for (value in 1..order) {
+            if ((0 until y).none { values[x][it] == value } && (0 until x).none { values[it][y] == value }) {
+                values[x][y] = value
+                count += this.countSolutions(order, cages, values, cell + 1)
+            }
+        }
+        values[x][y] = 0
+        return count
+    }
+
+    fun testFindsEverySolution() {
+        // Dominoes over a latin square leave puzzles with many solutions
+        for (attempt in 0 until 10) {
+            val random = SplitMix64(attempt.toLong())
+            val latinSquare = LatinSquare(4, random)
+            val cages = ArrayList<ICage>()
+            for (x in 0 until 4) {
+                for (y in 0 until 4 step 2) {
+                    val numbers = intArrayOf(latinSquare.values[x][y], latinSquare.values[x][y + 1])
+                    val squares = listOf(Point(x, y), Point(x, y + 1))
+                    cages.add(BaseCage.ToCage(CageGenerator.DetermineSign(numbers, random), squares, squares[0]))
+                }
+            }
+
+            val expected = this.countSolutions(4, cages, Array(4) { IntArray(4) }, 0)
+            val result = Solver(4, cages).solve(1000)
+            assertTrue(result.isComplete)
+            assertEquals(expected, result.solutions.size)
+        }
+    }
+
+    fun testNodeBudget() {
+        // Every row of a 5x5 adding up to 15 allows every latin square
+        val cages = (0 until 5).map { x ->
+            this.cage(Sign.Add, 15, *Array(5) { y -> Point(x, y) })
+        }
+
+        val limited = Solver(5, cages).solve(2, null, 1)
+        assertFalse(limited.isComplete)
+        assertFalse(limited.isUnique)
+        assertEquals(1, limited.nodes)
+
+        val result = Solver(5, cages).solve(2, null)
+        assertTrue(result.isComplete)
+        assertEquals(2, result.solutions.size)
+    }
+
+    fun testUnsolvable() {
+        val cages = listOf(
+                this.cage(Sign.Multiply, 5, Point(0, 0), Point(0, 1)),
+                this.cage(Sign.Add, 3, Point(1, 0), Point(1, 1))
+        )
+
+        assertFalse(Solver(2, cages).solve().isSolvable)
+    }
+}
@@ -0,0 +1,47 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.SplitMix64
+import junit.framework.TestCase
+
+class SplitMix64Tests : TestCase() {
+
+    fun testReferenceSequence() {
+        val random = SplitMix64(0)
+        assertEquals(-0x1ddf57c684e23251L, random.nextLong())
+        assertEquals(0x6e789e6aa1b965f4L, random.nextLong())
+        assertEquals(0x06c45d188009454fL, random.nextLong())
+    }
+
+    fun testSameSeedSameNumbers() {
+        val first = SplitMix64(42)
+        val second = SplitMix64(42)
+        for (i in 0 until 100) {
+            assertEquals(first.nextInt(25), second.nextInt(25))
+            assertEquals(first.nextBoolean(), second.nextBoolean())
+        }
+
+        // Reseeding starts the sequence over
+        first.setSeed(7)
+        second.setSeed(7)
+        assertEquals(first.nextLong(), second.nextLong())
+    }
+
+    fun testSplit() {
+        val random = SplitMix64(42)
+        val child = random.split()
+
+        val again = SplitMix64(42)
+        assertEquals(again.split().nextLong(), child.nextLong())
+
+        // Splitting advances the parent by one long
+        assertEquals(again.nextLong(), random.nextLong())
+    }
+
+    fun testBounds() {
+        val random = SplitMix64(SplitMix64.newSeed())
+        for (i in 0 until 1000) {
+            val value = random.nextInt(7)
+            assertTrue(value in 0..6)
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.anthonysottile.kenken.test
+
+import com.anthonysottile.kenken.Board
+import com.anthonysottile.kenken.UserSquare
+import com.anthonysottile.kenken.serialization.JsonGameSerializer
+import junit.framework.TestCase
+
+class UserSquareTests : TestCase() {
+    fun testSetValue() {
+        val board = Board(9, emptyList())
+        val square = UserSquare(board, board.indexOf(2, 3))
+        val rowValues = board.rowValues[2]
+        val colValues = board.colValues[3]
+
+        square.value = 4
+        assertTrue(rowValues.contains(4))
+        assertTrue(colValues.contains(4))
+
+        square.value = 5
+        assertFalse(rowValues.contains(4))
+        assertFalse(colValues.contains(4))
+        assertTrue(rowValues.contains(5))
+        assertTrue(colValues.contains(5))
+        assertEquals(1, board.filledCount)
+
+        square.value = 0
+        assertTrue(rowValues.isEmpty())
+        assertTrue(colValues.isEmpty())
+        assertEquals(0, board.filledCount)
+    }
+
+    fun testDuplicateValues() {
+        val board = Board(9, emptyList())
+        val first = UserSquare(board, board.indexOf(0, 0))
+        val second = UserSquare(board, board.indexOf(0, 1))
+        val rowValues = board.rowValues[0]
+
+        // Entering a duplicate and clearing it keeps the first value
+        first.value = 3
+        second.value = 3
+        second.value = 0
+        assertTrue(rowValues.contains(3))
+        assertEquals(1 shl 2, rowValues.mask)
+
+        first.value = 0
+        assertTrue(rowValues.isEmpty())
+    }
+
+    fun testCandidatesString() {
+        val board = Board(9, emptyList())
+        val square = UserSquare(board, 0)
+
+        assertEquals("", square.getCandidatesString())
+
+        square.addCandidate(5)
+        square.addCandidate(1)
+        assertEquals("1 5", square.getCandidatesString())
+
+        square.removeCandidate(5)
+        assertEquals("1", square.getCandidatesString())
+        assertEquals(1, square.candidateMask)
+    }
+
+    fun testCandidatesStringHidesUsedValues() {
+        val board = Board(9, emptyList())
+        val square = UserSquare(board, board.indexOf(0, 0))
+        val other = UserSquare(board, board.indexOf(0, 1))
+
+        square.addCandidate(2)
+        square.addCandidate(7)
+        square.addCandidate(9)
+        other.value = 7
+        assertEquals("2 9", square.getCandidatesString())
+        assertEquals((1 shl 1) or (1 shl 8), square.shownCandidates)
+        assertTrue(square.hasCandidate(7))
+
+        // The same candidates share one string
+        assertSame(square.getCandidatesString(), square.getCandidatesString())
+    }
+
+    fun testListeners() {
+        val board = Board(9, emptyList())
+        val square = UserSquare(board, 5)
+        val valuesSet = ArrayList<Int>()
+        val changed = ArrayList<Int>()
+        board.addValueSetListener { valuesSet.add(it) }
+        board.addChangedListener { changed.add(it) }
+
+        square.value = 2
+        square.value = 2
+        square.addCandidate(3)
+
+        assertEquals(listOf(5), valuesSet)
+        assertEquals(listOf(5, 5), changed)
+    }
+
+    fun testJsonRoundTrip() {
+        val board = Board(9, emptyList())
+        val square = UserSquare(board, 0)
+
+        square.value = 5
+        square.addCandidate(1)
+        square.addCandidate(4)
+
+        val square2 = UserSquare(board, 1)
+        JsonGameSerializer.readUserSquare(JsonGameSerializer.userSquareToJson(square), square2)
+        assertEquals(5, square.value)
+        assertEquals("1 4", square2.getCandidatesString())
+    }
+}